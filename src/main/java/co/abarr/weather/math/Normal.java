@@ -0,0 +1,98 @@
+package co.abarr.weather.math;
+
+/**
+ * Functions of the standard normal distribution.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class Normal {
+    private static final double SQRT_2PI = Math.sqrt(2 * Math.PI);
+
+    /**
+     * The probability density at some point.
+     */
+    public static double pdf(double x) {
+        return Math.exp(-0.5 * x * x) / SQRT_2PI;
+    }
+
+    /**
+     * The probability of a value less than or equal to some point.
+     * <p>
+     * Accurate to roughly 1e-7 over the whole real line.
+     */
+    public static double cdf(double x) {
+        if (Double.isNaN(x)) {
+            return Double.NaN;
+        } else {
+            return 0.5 * erfc(-x / Math.sqrt(2));
+        }
+    }
+
+    /**
+     * The point below which some probability lies.
+     * <p>
+     * An exception will be thrown if the probability is outside of the range
+     * (0,1).
+     */
+    public static double inverseCdf(double p) {
+        if (Double.isNaN(p) || p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("Invalid probability: " + p);
+        } else {
+            double x = acklam(p);
+            //One Halley step brings the estimate up to the accuracy of the cdf
+            double e = cdf(x) - p;
+            double u = e * SQRT_2PI * Math.exp(0.5 * x * x);
+            return x - u / (1 + 0.5 * x * u);
+        }
+    }
+
+    private static double acklam(double p) {
+        double low = 0.02425;
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((C[0] * q + C[1]) * q + C[2]) * q + C[3]) * q + C[4]) * q + C[5]) /
+                ((((D[0] * q + D[1]) * q + D[2]) * q + D[3]) * q + 1);
+        } else if (p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((C[0] * q + C[1]) * q + C[2]) * q + C[3]) * q + C[4]) * q + C[5]) /
+                ((((D[0] * q + D[1]) * q + D[2]) * q + D[3]) * q + 1);
+        } else {
+            double q = p - 0.5;
+            double r = q * q;
+            return (((((A[0] * r + A[1]) * r + A[2]) * r + A[3]) * r + A[4]) * r + A[5]) * q /
+                (((((B[0] * r + B[1]) * r + B[2]) * r + B[3]) * r + B[4]) * r + 1);
+        }
+    }
+
+    private static double erfc(double x) {
+        double z = Math.abs(x);
+        double t = 1 / (1 + 0.5 * z);
+        double r = t * Math.exp(
+            -z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418 + t * (-0.18628806 +
+                t * (0.27886807 + t * (-1.13520398 + t * (1.48851587 + t * (-0.82215223 + t * 0.17087277))))))))
+        );
+        return x >= 0 ? r : 2 - r;
+    }
+
+    private static final double[] A = {
+        -3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+        1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00
+    };
+
+    private static final double[] B = {
+        -5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+        6.680131188771972e+01, -1.328068155288572e+01
+    };
+
+    private static final double[] C = {
+        -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+        -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00
+    };
+
+    private static final double[] D = {
+        7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+        3.754408661907416e+00
+    };
+
+    private Normal() {}
+}
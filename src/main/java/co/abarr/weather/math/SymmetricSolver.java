@@ -0,0 +1,124 @@
+package co.abarr.weather.math;
+
+import org.jblas.DoubleMatrix;
+import org.jblas.Solve;
+
+/**
+ * Solves linear systems Ax = b where A is symmetric positive definite, eg
+ * the normal equations of a least-squares regression.
+ * <p>
+ * Matrices are n x n arrays in row-major order, of which only the upper
+ * triangle is read. Small systems are solved by a pure Java Cholesky
+ * decomposition, avoiding the start-up cost of loading native libraries,
+ * while larger systems are passed to jblas.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class SymmetricSolver {
+    /**
+     * The largest system that is solved in pure Java by default.
+     */
+    public static final int MAX_JAVA_SIZE = 32;
+
+    private SymmetricSolver() {
+    }
+
+    /**
+     * Solves the system, in pure Java for small systems and natively
+     * otherwise.
+     * <p>
+     * An exception will be thrown if the dimensions do not match.
+     */
+    public static double[] solve(double[] a, double[] b) {
+        if (b.length <= MAX_JAVA_SIZE) {
+            return solveInJava(a, b);
+        } else {
+            return solveNatively(a, b);
+        }
+    }
+
+    /**
+     * Solves the system by Cholesky decomposition in pure Java.
+     * <p>
+     * The matrix is first scaled to have a unit diagonal, which keeps the
+     * decomposition accurate when the variables have very different
+     * magnitudes (eg a constant and a day count). An exception will be thrown
+     * if the dimensions do not match, or the matrix is not positive definite.
+     */
+    public static double[] solveInJava(double[] a, double[] b) {
+        int n = checkDimensions(a, b);
+        double[] scale = new double[n];
+        for (int i = 0; i < n; i++) {
+            double diagonal = a[i * n + i];
+            if (!(diagonal > 0)) {
+                throw new IllegalArgumentException("Matrix is not positive definite");
+            }
+            scale[i] = 1 / Math.sqrt(diagonal);
+        }
+        //Decompose the scaled matrix as L * L', storing L in the lower triangle
+        double[] l = new double[n * n];
+        for (int j = 0; j < n; j++) {
+            double sum = 1;
+            for (int k = 0; k < j; k++) {
+                sum -= l[j * n + k] * l[j * n + k];
+            }
+            if (!(sum > 0)) {
+                throw new IllegalArgumentException("Matrix is not positive definite");
+            }
+            double pivot = Math.sqrt(sum);
+            l[j * n + j] = pivot;
+            for (int i = j + 1; i < n; i++) {
+                double value = a[j * n + i] * scale[i] * scale[j];
+                for (int k = 0; k < j; k++) {
+                    value -= l[i * n + k] * l[j * n + k];
+                }
+                l[i * n + j] = value / pivot;
+            }
+        }
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            double value = b[i] * scale[i];
+            for (int k = 0; k < i; k++) {
+                value -= l[i * n + k] * y[k];
+            }
+            y[i] = value / l[i * n + i];
+        }
+        double[] x = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            double value = y[i];
+            for (int k = i + 1; k < n; k++) {
+                value -= l[k * n + i] * x[k];
+            }
+            x[i] = value / l[i * n + i];
+        }
+        for (int i = 0; i < n; i++) {
+            x[i] *= scale[i];
+        }
+        return x;
+    }
+
+    /**
+     * Solves the system natively using jblas.
+     * <p>
+     * An exception will be thrown if the dimensions do not match.
+     */
+    public static double[] solveNatively(double[] a, double[] b) {
+        int n = checkDimensions(a, b);
+        DoubleMatrix matrix = new DoubleMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                matrix.put(i, j, a[i * n + j]);
+                matrix.put(j, i, a[i * n + j]);
+            }
+        }
+        return Solve.solveSymmetric(matrix, new DoubleMatrix(b)).toArray();
+    }
+
+    private static int checkDimensions(double[] a, double[] b) {
+        if (a.length != b.length * b.length) {
+            throw new IllegalArgumentException("Invalid dimensions: " + a.length + " and " + b.length);
+        } else {
+            return b.length;
+        }
+    }
+}
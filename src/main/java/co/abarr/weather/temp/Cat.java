@@ -0,0 +1,15 @@
+package co.abarr.weather.temp;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class Cat extends DailyIndexer {
+    public Cat(TempUnits units) {
+        super(units);
+    }
+
+    @Override
+    double daily(double temp) {
+        return temp;
+    }
+}
@@ -0,0 +1,18 @@
+package co.abarr.weather.temp;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class Cdd extends DailyIndexer {
+    private final double reference;
+
+    public Cdd(Temp reference) {
+        super(reference.units());
+        this.reference = reference.doubleValue();
+    }
+
+    @Override
+    double daily(double temp) {
+        return Math.max(temp - reference, 0);
+    }
+}
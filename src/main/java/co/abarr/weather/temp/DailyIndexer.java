@@ -0,0 +1,39 @@
+package co.abarr.weather.temp;
+
+import java.util.Objects;
+
+/**
+ * An index that is the sum of some function of each day's temperature.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+abstract class DailyIndexer implements TempIndexer {
+    private final TempUnits units;
+
+    DailyIndexer(TempUnits units) {
+        this.units = Objects.requireNonNull(units);
+    }
+
+    /**
+     * The units in which temperatures are passed to {@link #daily}, and in
+     * which the index is returned.
+     */
+    TempUnits units() {
+        return units;
+    }
+
+    /**
+     * The contribution of a single day to the index.
+     */
+    abstract double daily(double temp);
+
+    @Override
+    public Temp indexFor(TempSeries series) {
+        series = series.to(units);
+        double index = 0;
+        for (int i = 0; i < series.size(); i++) {
+            index += daily(series.valueAt(i));
+        }
+        return Temp.of(index, units);
+    }
+}
@@ -0,0 +1,18 @@
+package co.abarr.weather.temp;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class DaysBelow extends DailyIndexer {
+    private final double threshold;
+
+    public DaysBelow(Temp threshold) {
+        super(threshold.units());
+        this.threshold = threshold.doubleValue();
+    }
+
+    @Override
+    double daily(double temp) {
+        return temp < threshold ? 1 : 0;
+    }
+}
@@ -0,0 +1,90 @@
+package co.abarr.weather.temp;
+
+import co.abarr.weather.time.DateRange;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Cumulative heating and cooling degree-days for a series.
+ * <p>
+ * The running totals are calculated once, after which the HDD or CDD over
+ * any date range is just the difference of two totals, so takes constant
+ * time. Dates missing from the series contribute nothing, exactly as if
+ * the index had been applied to a subseries.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class DegreeDays {
+    private final Temp reference;
+    private final LocalDate start;
+    private final double[] hdds;
+    private final double[] cdds;
+
+    private DegreeDays(Temp reference, LocalDate start, double[] hdds, double[] cdds) {
+        this.reference = reference;
+        this.start = start;
+        this.hdds = hdds;
+        this.cdds = cdds;
+    }
+
+    /**
+     * The HDD index over the supplied range, in units of the reference.
+     */
+    public Temp hdd(DateRange range) {
+        return Temp.of(between(hdds, range), reference.units());
+    }
+
+    /**
+     * The CDD index over the supplied range, in units of the reference.
+     */
+    public Temp cdd(DateRange range) {
+        return Temp.of(between(cdds, range), reference.units());
+    }
+
+    /**
+     * The reference temperature.
+     */
+    public Temp reference() {
+        return reference;
+    }
+
+    private double between(double[] totals, DateRange range) {
+        return totals[offsetOf(range.end())] - totals[offsetOf(range.start())];
+    }
+
+    private int offsetOf(LocalDate date) {
+        long offset = date.toEpochDay() - start.toEpochDay();
+        return (int) Math.max(0, Math.min(offset, hdds.length - 1));
+    }
+
+    /**
+     * Calculates the cumulative degree-days for a series.
+     * <p>
+     * An exception will be thrown if the series or reference are null.
+     */
+    public static DegreeDays of(TempSeries series, Temp reference) {
+        Objects.requireNonNull(reference);
+        series = series.to(reference.units());
+        if (series.isEmpty()) {
+            return new DegreeDays(reference, LocalDate.EPOCH, new double[1], new double[1]);
+        } else {
+            double k = reference.doubleValue();
+            LocalDate start = series.dateAt(0);
+            int days = (int) (series.dateAt(series.size() - 1).toEpochDay() - start.toEpochDay()) + 1;
+            double[] hdds = new double[days + 1];
+            double[] cdds = new double[days + 1];
+            for (int i = 0; i < series.size(); i++) {
+                int offset = (int) (series.dateAt(i).toEpochDay() - start.toEpochDay());
+                double temp = series.valueAt(i);
+                hdds[offset + 1] = Math.max(k - temp, 0);
+                cdds[offset + 1] = Math.max(temp - k, 0);
+            }
+            for (int i = 1; i <= days; i++) {
+                hdds[i] += hdds[i - 1];
+                cdds[i] += cdds[i - 1];
+            }
+            return new DegreeDays(reference, start, hdds, cdds);
+        }
+    }
+}
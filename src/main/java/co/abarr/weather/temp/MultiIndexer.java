@@ -0,0 +1,81 @@
+package co.abarr.weather.temp;
+
+import java.util.*;
+
+/**
+ * Calculates several indices in a single pass over a series.
+ * <p>
+ * The series is converted once per distinct unit of the indices (usually
+ * just once), and every index is accumulated in the same loop over the
+ * days. Custom indices that are not simple daily sums are calculated
+ * separately.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class MultiIndexer {
+    private final List<TempIndexer> indexers;
+
+    private MultiIndexer(List<TempIndexer> indexers) {
+        this.indexers = indexers;
+    }
+
+    /**
+     * Calculates every index for a series, in the order of the indexers.
+     */
+    public List<Temp> indexFor(TempSeries series) {
+        Temp[] indices = new Temp[indexers.size()];
+        Map<TempUnits, List<Integer>> byUnits = new EnumMap<>(TempUnits.class);
+        for (int j = 0; j < indexers.size(); j++) {
+            TempIndexer indexer = indexers.get(j);
+            if (indexer instanceof DailyIndexer) {
+                byUnits.computeIfAbsent(((DailyIndexer) indexer).units(), units -> new ArrayList<>()).add(j);
+            } else {
+                indices[j] = indexer.indexFor(series);
+            }
+        }
+        for (Map.Entry<TempUnits, List<Integer>> entry : byUnits.entrySet()) {
+            TempSeries converted = series.to(entry.getKey());
+            DailyIndexer[] daily = new DailyIndexer[entry.getValue().size()];
+            for (int k = 0; k < daily.length; k++) {
+                daily[k] = (DailyIndexer) indexers.get(entry.getValue().get(k));
+            }
+            double[] sums = new double[daily.length];
+            for (int i = 0; i < converted.size(); i++) {
+                double temp = converted.valueAt(i);
+                for (int k = 0; k < daily.length; k++) {
+                    sums[k] += daily[k].daily(temp);
+                }
+            }
+            for (int k = 0; k < daily.length; k++) {
+                indices[entry.getValue().get(k)] = Temp.of(sums[k], entry.getKey());
+            }
+        }
+        return Arrays.asList(indices);
+    }
+
+    /**
+     * The indexers, in order.
+     */
+    public List<TempIndexer> indexers() {
+        return indexers;
+    }
+
+    /**
+     * Creates a new multi-indexer.
+     */
+    public static MultiIndexer of(TempIndexer... indexers) {
+        return of(Arrays.asList(indexers));
+    }
+
+    /**
+     * Creates a new multi-indexer.
+     * <p>
+     * An exception will be thrown if any indexer is null.
+     */
+    public static MultiIndexer of(List<TempIndexer> indexers) {
+        for (TempIndexer indexer : indexers) {
+            Objects.requireNonNull(indexer);
+        }
+        return new MultiIndexer(List.copyOf(indexers));
+    }
+}
@@ -0,0 +1,105 @@
+package co.abarr.weather.temp;
+
+import co.abarr.weather.math.Fraction;
+import co.abarr.weather.math.Normal;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A normal distribution of temperatures.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+class NormalTemps implements TempDistribution {
+    private final double mean;
+    private final double stdev;
+    private final TempUnits units;
+
+    public NormalTemps(Temp mean, Temp stdev) {
+        this.units = mean.units();
+        this.mean = mean.doubleValue();
+        this.stdev = units.convertDifference(stdev.doubleValue(), stdev.units());
+        if (this.stdev < 0) {
+            throw new IllegalArgumentException("Invalid stdev: " + stdev);
+        }
+    }
+
+    /**
+     * Where the supplied temperature fits in the distribution.
+     */
+    @Override
+    public Fraction quantileOf(Temp temp) {
+        double value = temp.to(units).doubleValue();
+        if (stdev == 0) {
+            return Fraction.of(value <= mean ? 0 : 1);
+        } else {
+            return Fraction.of(Normal.cdf((value - mean) / stdev));
+        }
+    }
+
+    /**
+     * A quantile of the distribution.
+     * <p>
+     * An exception will be thrown for the (unbounded) 0 and 1 quantiles,
+     * unless the distribution is degenerate.
+     */
+    @Override
+    public Temp quantile(Fraction quantile) {
+        if (stdev == 0) {
+            return Temp.of(mean, units);
+        } else {
+            return Temp.of(mean + stdev * Normal.inverseCdf(quantile.doubleValue()), units);
+        }
+    }
+
+    @Override
+    public Temp expectedExcessOver(Temp strike) {
+        double k = strike.to(units).doubleValue();
+        if (stdev == 0) {
+            return Temp.of(Math.max(mean - k, 0), units);
+        } else {
+            double d = (mean - k) / stdev;
+            return Temp.of((mean - k) * Normal.cdf(d) + stdev * Normal.pdf(d), units);
+        }
+    }
+
+    @Override
+    public Temp expectedShortfallUnder(Temp strike) {
+        double k = strike.to(units).doubleValue();
+        if (stdev == 0) {
+            return Temp.of(Math.max(k - mean, 0), units);
+        } else {
+            double d = (k - mean) / stdev;
+            return Temp.of((k - mean) * Normal.cdf(d) + stdev * Normal.pdf(d), units);
+        }
+    }
+
+    @Override
+    public Optional<Temp> mean() {
+        return Optional.of(Temp.of(mean, units));
+    }
+
+    @Override
+    public Optional<Temp> stdev() {
+        return Optional.of(Temp.of(stdev, units));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NormalTemps that = (NormalTemps) o;
+        return Double.compare(that.mean, mean) == 0 && Double.compare(that.stdev, stdev) == 0 && units == that.units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mean, stdev, units);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("N(%s%s, %s%s)", mean, units.shortCode(), stdev, units.shortCode());
+    }
+}
@@ -1,7 +1,6 @@
 package co.abarr.weather.temp;
 
 import co.abarr.weather.math.Fraction;
-import co.abarr.weather.math.Probability;
 
 import java.util.*;
 import java.util.function.Supplier;
@@ -11,9 +10,12 @@ import java.util.function.Supplier;
  * <p>
  * Created by adam on 04/12/2020.
  */
-public class TempBag {
+public class TempBag implements TempDistribution {
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+
     private final double[] temps;
     private final TempUnits units;
+    private volatile double[] prefixSums;
 
     private TempBag(double[] temps, TempUnits units) {
         this.temps = temps;
@@ -23,18 +25,83 @@ public class TempBag {
     /**
      * Where the supplied temperature fits in the distribution.
      */
+    @Override
     public Fraction quantileOf(Temp temp) {
+        return Fraction.of(indexOf(temp) / (double) temps.length);
+    }
+
+    /**
+     * The expected amount by which temperatures exceed a strike.
+     * <p>
+     * This takes O(log n), using the prefix sums of the sorted temperatures
+     * (which are calculated on first use). An exception will be thrown if
+     * the bag is empty.
+     */
+    @Override
+    public Temp expectedExcessOver(Temp strike) {
+        requireNonEmpty();
+        double k = strike.to(units).doubleValue();
+        int index = indexOf(strike);
+        double[] sums = prefixSums();
+        double above = sums[temps.length] - sums[index];
+        return Temp.of((above - (temps.length - index) * k) / temps.length, units);
+    }
+
+    /**
+     * The expected amount by which temperatures fall short of a strike.
+     * <p>
+     * This takes O(log n), using the prefix sums of the sorted temperatures
+     * (which are calculated on first use). An exception will be thrown if
+     * the bag is empty.
+     */
+    @Override
+    public Temp expectedShortfallUnder(Temp strike) {
+        requireNonEmpty();
+        double k = strike.to(units).doubleValue();
+        int index = indexOf(strike);
+        return Temp.of((index * k - prefixSums()[index]) / temps.length, units);
+    }
+
+    /**
+     * The number of temperatures strictly below the supplied temperature.
+     */
+    private int indexOf(Temp temp) {
         double value = temp.to(units).doubleValue();
-        int index = Arrays.binarySearch(temps, value);
-        if (index < 0) {
-            index = -index - 1;
+        int low = 0;
+        int high = temps.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (temps[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private double[] prefixSums() {
+        double[] sums = prefixSums;
+        if (sums == null) {
+            sums = new double[temps.length + 1];
+            for (int i = 0; i < temps.length; i++) {
+                sums[i + 1] = sums[i] + temps[i];
+            }
+            prefixSums = sums;
+        }
+        return sums;
+    }
+
+    private void requireNonEmpty() {
+        if (temps.length == 0) {
+            throw new NoSuchElementException("Empty bag");
         }
-        return Fraction.of(index / (double) temps.length);
     }
 
     /**
      * A quantile of the distribution.
      */
+    @Override
     public Temp quantile(Fraction quantile) {
         double temp;
         double index = quantile.doubleValue() * (temps.length - 1);
@@ -48,31 +115,6 @@ public class TempBag {
         return Temp.of(temp, units);
     }
 
-    /**
-     * Quantiles of the distribution.
-     */
-    public Map<Fraction, Temp> quantiles(Fraction... quantiles) {
-        return quantiles(Arrays.asList(quantiles));
-    }
-
-    /**
-     * Quantiles of the distribution.
-     */
-    public Map<Fraction, Temp> quantiles(Iterable<Fraction> quantiles) {
-        Map<Fraction, Temp> result = new TreeMap<>();
-        for (Fraction quantile : quantiles) {
-            result.put(quantile, quantile(quantile));
-        }
-        return result;
-    }
-
-    /**
-     * The probability of temperatures at or above some threshold.
-     */
-    public Probability pMoreThanOrEqualTo(Temp temp) {
-        return Probability.of(1 - quantileOf(temp).doubleValue());
-    }
-
     /**
      * The sum of the temperatures.
      */
@@ -87,6 +129,7 @@ public class TempBag {
     /**
      * The mean temperature, if there is one.
      */
+    @Override
     public Optional<Temp> mean() {
         if (temps.length == 0) {
             return Optional.empty();
@@ -95,6 +138,23 @@ public class TempBag {
         }
     }
 
+    /**
+     * The (sample) standard deviation of the temperatures, if there is one.
+     */
+    @Override
+    public Optional<Temp> stdev() {
+        if (temps.length < 2) {
+            return Optional.empty();
+        } else {
+            double mean = sum().doubleValue() / temps.length;
+            double sum = 0;
+            for (double temp : temps) {
+                sum += (temp - mean) * (temp - mean);
+            }
+            return Optional.of(Temp.of(Math.sqrt(sum / (temps.length - 1)), units));
+        }
+    }
+
     /**
      * The mid point temperature, if there is one.
      */
@@ -132,11 +192,16 @@ public class TempBag {
      * Creates a bag from a generator function.
      */
     public static TempBag generate(int n, Supplier<Temp> generator) {
-        List<Temp> temps = new ArrayList<>(n);
-        for (int i = 0; i < n; i++) {
-            temps.add(generator.get());
+        if (n <= 0) {
+            return empty();
+        } else {
+            Temp first = generator.get();
+            Builder builder = builder(first.units(), n).add(first);
+            for (int i = 1; i < n; i++) {
+                builder.add(generator.get());
+            }
+            return builder.build();
         }
-        return of(temps);
     }
 
     /**
@@ -150,17 +215,91 @@ public class TempBag {
      * Creates a bag containing the supplied temperatures.
      */
     public static TempBag of(Iterable<Temp> temps) {
-        List<Temp> list = new ArrayList<>();
-        TempUnits units = unitsFor(temps);
+        Builder builder = builder(unitsFor(temps));
         for (Temp temp : temps) {
-            list.add(temp.to(units));
+            builder.add(temp);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a bag containing the supplied temperatures.
+     * <p>
+     * The array is copied, so may be reused by the caller.
+     */
+    public static TempBag of(double[] temps, TempUnits units) {
+        return new TempBag(sort(Arrays.copyOf(temps, temps.length)), Objects.requireNonNull(units));
+    }
+
+    /**
+     * Creates a builder for a bag of temperatures in the supplied units.
+     */
+    public static Builder builder(TempUnits units) {
+        return builder(units, 16);
+    }
+
+    /**
+     * Creates a builder for a bag of (roughly) some expected size.
+     */
+    public static Builder builder(TempUnits units, int expectedSize) {
+        return new Builder(units, expectedSize);
+    }
+
+    /**
+     * Accumulates primitive temperatures before sorting them into a bag.
+     * <p>
+     * Instances are not thread-safe.
+     */
+    public static final class Builder {
+        private final TempUnits units;
+        private double[] temps;
+        private int size;
+
+        private Builder(TempUnits units, int expectedSize) {
+            this.units = Objects.requireNonNull(units);
+            this.temps = new double[Math.max(expectedSize, 1)];
+        }
+
+        /**
+         * Adds a temperature in the units of the builder.
+         */
+        public Builder add(double temp) {
+            if (size == temps.length) {
+                temps = Arrays.copyOf(temps, temps.length * 2);
+            }
+            temps[size++] = temp;
+            return this;
         }
-        double[] array = new double[list.size()];
-        for (int i = 0; i < list.size(); i++) {
-            array[i] = list.get(i).doubleValue();
+
+        /**
+         * Adds a temperature, converting it to the units of the builder.
+         */
+        public Builder add(Temp temp) {
+            return add(temp.to(units).doubleValue());
+        }
+
+        /**
+         * The number of temperatures added so far.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Creates a bag containing the temperatures added so far.
+         */
+        public TempBag build() {
+            return new TempBag(sort(Arrays.copyOf(temps, size)), units);
+        }
+    }
+
+    private static double[] sort(double[] temps) {
+        if (temps.length >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(temps);
+        } else {
+            Arrays.sort(temps);
         }
-        Arrays.sort(array);
-        return new TempBag(array, units);
+        return temps;
     }
 
     private static TempUnits unitsFor(Iterable<Temp> temps) {
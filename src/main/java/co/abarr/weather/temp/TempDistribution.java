@@ -0,0 +1,108 @@
+package co.abarr.weather.temp;
+
+import co.abarr.weather.math.Fraction;
+import co.abarr.weather.math.Probability;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * A probability distribution of temperatures.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public interface TempDistribution {
+    /**
+     * Where the supplied temperature fits in the distribution.
+     */
+    Fraction quantileOf(Temp temp);
+
+    /**
+     * A quantile of the distribution.
+     */
+    Temp quantile(Fraction quantile);
+
+    /**
+     * Quantiles of the distribution.
+     */
+    default Map<Fraction, Temp> quantiles(Fraction... quantiles) {
+        return quantiles(Arrays.asList(quantiles));
+    }
+
+    /**
+     * Quantiles of the distribution.
+     */
+    default Map<Fraction, Temp> quantiles(Iterable<Fraction> quantiles) {
+        Map<Fraction, Temp> result = new TreeMap<>();
+        for (Fraction quantile : quantiles) {
+            result.put(quantile, quantile(quantile));
+        }
+        return result;
+    }
+
+    /**
+     * The probability of temperatures at or above some threshold.
+     */
+    default Probability pMoreThanOrEqualTo(Temp temp) {
+        return Probability.of(1 - quantileOf(temp).doubleValue());
+    }
+
+    /**
+     * The expected amount by which temperatures exceed a strike, ie the
+     * expectation of max(t - strike, 0).
+     * <p>
+     * An exception will be thrown if the distribution is empty.
+     */
+    Temp expectedExcessOver(Temp strike);
+
+    /**
+     * The expected amount by which temperatures fall short of a strike, ie
+     * the expectation of max(strike - t, 0).
+     * <p>
+     * An exception will be thrown if the distribution is empty.
+     */
+    Temp expectedShortfallUnder(Temp strike);
+
+    /**
+     * The expected excess over each of a ladder of strikes.
+     */
+    default Map<Temp, Temp> expectedExcessOver(Iterable<Temp> strikes) {
+        Map<Temp, Temp> result = new TreeMap<>();
+        for (Temp strike : strikes) {
+            result.put(strike, expectedExcessOver(strike));
+        }
+        return result;
+    }
+
+    /**
+     * The expected shortfall under each of a ladder of strikes.
+     */
+    default Map<Temp, Temp> expectedShortfallUnder(Iterable<Temp> strikes) {
+        Map<Temp, Temp> result = new TreeMap<>();
+        for (Temp strike : strikes) {
+            result.put(strike, expectedShortfallUnder(strike));
+        }
+        return result;
+    }
+
+    /**
+     * The mean temperature, if there is one.
+     */
+    Optional<Temp> mean();
+
+    /**
+     * The standard deviation of temperatures, if there is one.
+     */
+    Optional<Temp> stdev();
+
+    /**
+     * A normal distribution.
+     * <p>
+     * An exception will be thrown if the standard deviation is negative.
+     */
+    static TempDistribution normal(Temp mean, Temp stdev) {
+        return new NormalTemps(mean, stdev);
+    }
+}
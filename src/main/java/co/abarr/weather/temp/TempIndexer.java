@@ -21,8 +21,49 @@ public interface TempIndexer {
         return new Hdd(reference);
     }
 
+    /**
+     * Calculates a CDD (cooling-degree-day) index.
+     * <p>
+     * For a given temperature the CDD is the amount it is above the reference
+     * temperature (in units of the reference temp).
+     */
+    static TempIndexer cdd(Temp reference) {
+        return new Cdd(reference);
+    }
+
+    /**
+     * Calculates a CAT (cumulative average temperature) index.
+     * <p>
+     * This is just the sum of the temperatures, in the supplied units.
+     */
+    static TempIndexer cat(TempUnits units) {
+        return new Cat(units);
+    }
+
+    /**
+     * Counts the days below some threshold (eg frost days).
+     * <p>
+     * Since all indices are temperatures, the count is returned in the units
+     * of the threshold.
+     */
+    static TempIndexer daysBelow(Temp threshold) {
+        return new DaysBelow(threshold);
+    }
+
+    /**
+     * Calculates several indices in a single pass over a series.
+     */
+    static MultiIndexer all(TempIndexer... indexers) {
+        return MultiIndexer.of(indexers);
+    }
+
     /**
      * Standard US HDD index.
      */
     TempIndexer HDD_65 = hdd(Temp.fahrenheit(65));
+
+    /**
+     * Standard US CDD index.
+     */
+    TempIndexer CDD_65 = cdd(Temp.fahrenheit(65));
 }
@@ -72,14 +72,33 @@ public class TempSeries extends AbstractList<TempSeries.Entry> implements TempUn
      * Filters down to entries before the supplied date (exclusive).
      */
     public TempSeries head(LocalDate to) {
-        return new TempSeries(temps.filter((date, temp) -> date.isBefore(to)));
+        return new TempSeries(temps.slice(0, indexOf(to)));
     }
 
     /**
      * Filters down to entries in a date range.
      */
     public TempSeries subSeries(DateRange range) {
-        return new TempSeries(temps.filter((date, temp) -> range.contains(date)));
+        return new TempSeries(temps.slice(indexOf(range.start()), indexOf(range.end())));
+    }
+
+    /**
+     * The number of entries before the supplied date.
+     * <p>
+     * Since the series is ordered by date, this is a binary search.
+     */
+    private int indexOf(LocalDate date) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dateAt(mid).isBefore(date)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 
     /**
@@ -138,6 +157,22 @@ public class TempSeries extends AbstractList<TempSeries.Entry> implements TempUn
         return indexer.indexFor(this);
     }
 
+    /**
+     * Calculates several indices from this series, in a single pass.
+     */
+    public List<Temp> apply(MultiIndexer indexer) {
+        return indexer.indexFor(this);
+    }
+
+    /**
+     * Cumulative degree-days relative to a reference temperature.
+     * <p>
+     * See {@link DegreeDays}.
+     */
+    public DegreeDays degreeDays(Temp reference) {
+        return DegreeDays.of(this, reference);
+    }
+
     /**
      * Rounds all temperatures to some number of decimal places.
      */
@@ -152,6 +187,21 @@ public class TempSeries extends AbstractList<TempSeries.Entry> implements TempUn
         return temps.distribution();
     }
 
+    /**
+     * The date at the supplied index, without creating an entry.
+     */
+    public LocalDate dateAt(int index) {
+        return temps.keyAt(index);
+    }
+
+    /**
+     * The temperature (in the units of the series) at the supplied index,
+     * without creating an entry.
+     */
+    public double valueAt(int index) {
+        return temps.valueAt(index);
+    }
+
     /**
      * Groups this series into one subseries per-year.
      */
@@ -0,0 +1,400 @@
+package co.abarr.weather.temp;
+
+import co.abarr.weather.math.Fraction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * A streaming, mergeable approximation of a distribution of temperatures.
+ * <p>
+ * This is a KLL sketch (Karnin, Lang and Liberty, "Optimal Quantile
+ * Approximation in Streams"): temperatures are kept in a hierarchy of
+ * compactors, each of which, when full, sorts itself and promotes every
+ * other temperature to the next level with double the weight. Memory is
+ * bounded by roughly 3k temperatures however many are added, and rank
+ * errors are of order 1/k. Until the first compaction the sketch is exact,
+ * and agrees with {@link TempBag}.
+ * <p>
+ * The mean, standard deviation, min and max are always exact. Instances are
+ * not thread-safe; use separate sketches per thread and {@link #merge} them.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class TempSketch implements TempDistribution {
+    private static final double DECAY = 2.0 / 3.0;
+    private static final int DEFAULT_K = 1000;
+
+    private final int k;
+    private final List<double[]> levels = new ArrayList<>();
+    private final List<Integer> lengths = new ArrayList<>();
+    private TempUnits units;
+    private int retained;
+    private int maxRetained;
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long random = 0x9E3779B97F4A7C15L;
+    private double[] sortedValues;
+    private long[] sortedWeights;
+
+    private TempSketch(int k, TempUnits units) {
+        this.k = k;
+        this.units = units;
+        if (k < 8) {
+            throw new IllegalArgumentException("Invalid k: " + k);
+        }
+        grow();
+    }
+
+    /**
+     * Adds a temperature to the sketch.
+     * <p>
+     * The first temperature added to an empty sketch fixes its units.
+     */
+    public TempSketch add(Temp temp) {
+        if (count == 0) {
+            units = temp.units();
+        }
+        return add(temp.to(units).doubleValue());
+    }
+
+    /**
+     * Adds a temperature (in the units of the sketch) to the sketch.
+     */
+    public TempSketch add(double temp) {
+        append(0, temp);
+        count++;
+        double delta = temp - mean;
+        mean += delta / count;
+        m2 += delta * (temp - mean);
+        min = Math.min(min, temp);
+        max = Math.max(max, temp);
+        if (retained >= maxRetained) {
+            compress();
+        }
+        return this;
+    }
+
+    /**
+     * Adds all temperatures from another sketch to this one.
+     * <p>
+     * The other sketch is not modified.
+     */
+    public TempSketch merge(TempSketch o) {
+        if (o.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            units = o.units;
+        }
+        double scale = units.convertDifference(1, o.units);
+        while (levels.size() < o.levels.size()) {
+            grow();
+        }
+        //Snapshot the other levels first, since they grow as we append when
+        //a sketch is merged into itself
+        double[][] oLevels = o.levels.toArray(new double[0][]);
+        int[] oLengths = o.lengths.stream().mapToInt(Integer::intValue).toArray();
+        for (int h = 0; h < oLevels.length; h++) {
+            for (int i = 0; i < oLengths[h]; i++) {
+                append(h, units.convert(oLevels[h][i], o.units));
+            }
+        }
+        double oMean = units.convert(o.mean, o.units);
+        double oM2 = o.m2 * scale * scale;
+        long total = count + o.count;
+        double delta = oMean - mean;
+        m2 += oM2 + delta * delta * count * o.count / total;
+        mean += delta * o.count / total;
+        count = total;
+        min = Math.min(min, units.convert(o.min, o.units));
+        max = Math.max(max, units.convert(o.max, o.units));
+        while (retained >= maxRetained) {
+            compress();
+        }
+        return this;
+    }
+
+    /**
+     * The number of temperatures added to the sketch.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * The number of temperatures actually held by the sketch.
+     */
+    public int retained() {
+        return retained;
+    }
+
+    /**
+     * The units of all temperatures in the sketch.
+     */
+    public TempUnits units() {
+        return units;
+    }
+
+    /**
+     * Where the supplied temperature fits in the distribution.
+     * <p>
+     * This is the (approximate) fraction of temperatures strictly less than
+     * the supplied temperature.
+     */
+    @Override
+    public Fraction quantileOf(Temp temp) {
+        double value = temp.to(units).doubleValue();
+        sort();
+        long below = 0;
+        for (int i = 0; i < sortedValues.length && sortedValues[i] < value; i++) {
+            below += sortedWeights[i];
+        }
+        return Fraction.of(below / (double) count);
+    }
+
+    /**
+     * A quantile of the distribution.
+     * <p>
+     * An exception will be thrown if the sketch is empty.
+     */
+    @Override
+    public Temp quantile(Fraction quantile) {
+        if (count == 0) {
+            throw new NoSuchElementException("Empty sketch");
+        }
+        double index = quantile.doubleValue() * (count - 1);
+        double temp;
+        if (index <= 0) {
+            temp = min;
+        } else if (index >= count - 1) {
+            temp = max;
+        } else {
+            long position = (long) index;
+            double temp0 = valueAt(position);
+            double temp1 = valueAt(position + 1);
+            temp = temp0 + (temp1 - temp0) * (index - position);
+        }
+        return Temp.of(temp, units);
+    }
+
+    @Override
+    public Temp expectedExcessOver(Temp strike) {
+        double k = strike.to(units).doubleValue();
+        return Temp.of(weightedMean(value -> Math.max(value - k, 0)), units);
+    }
+
+    @Override
+    public Temp expectedShortfallUnder(Temp strike) {
+        double k = strike.to(units).doubleValue();
+        return Temp.of(weightedMean(value -> Math.max(k - value, 0)), units);
+    }
+
+    private double weightedMean(DoubleUnaryOperator payoff) {
+        if (count == 0) {
+            throw new NoSuchElementException("Empty sketch");
+        }
+        sort();
+        double sum = 0;
+        for (int i = 0; i < sortedValues.length; i++) {
+            sum += sortedWeights[i] * payoff.applyAsDouble(sortedValues[i]);
+        }
+        return sum / count;
+    }
+
+    private double valueAt(long position) {
+        sort();
+        long cumulative = 0;
+        for (int i = 0; i < sortedValues.length; i++) {
+            cumulative += sortedWeights[i];
+            if (position < cumulative) {
+                return sortedValues[i];
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public Optional<Temp> mean() {
+        if (count == 0) {
+            return Optional.empty();
+        } else {
+            return Optional.of(Temp.of(mean, units));
+        }
+    }
+
+    /**
+     * The (sample) standard deviation of the temperatures, if there is one.
+     */
+    @Override
+    public Optional<Temp> stdev() {
+        if (count < 2) {
+            return Optional.empty();
+        } else {
+            return Optional.of(Temp.of(Math.sqrt(m2 / (count - 1)), units));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TempSketch[count=%s, retained=%s, units=%s]", count, retained, units);
+    }
+
+    private void append(int h, double temp) {
+        double[] level = levels.get(h);
+        int length = lengths.get(h);
+        if (length == level.length) {
+            level = Arrays.copyOf(level, level.length * 2);
+            levels.set(h, level);
+        }
+        level[length] = temp;
+        lengths.set(h, length + 1);
+        retained++;
+        sortedValues = null;
+    }
+
+    private void grow() {
+        levels.add(new double[16]);
+        lengths.add(0);
+        maxRetained = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            maxRetained += capacity(h);
+        }
+    }
+
+    private int capacity(int h) {
+        int depth = levels.size() - h - 1;
+        return (int) Math.ceil(Math.pow(DECAY, depth) * k) + 1;
+    }
+
+    private void compress() {
+        for (int h = 0; h < levels.size(); h++) {
+            if (lengths.get(h) >= capacity(h)) {
+                if (h + 1 >= levels.size()) {
+                    grow();
+                }
+                compact(h);
+                if (retained < maxRetained) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void compact(int h) {
+        double[] level = levels.get(h);
+        int length = lengths.get(h);
+        Arrays.sort(level, 0, length);
+        int offset = nextBit();
+        int kept = length % 2;
+        //An odd one out (the lowest) stays at this level, and of the rest every
+        //other one is promoted, starting at random from the first or second
+        for (int i = kept + offset; i < length; i += 2) {
+            append(h + 1, level[i]);
+        }
+        retained -= length - kept;
+        lengths.set(h, kept);
+    }
+
+    private int nextBit() {
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return (int) (random & 1);
+    }
+
+    private void sort() {
+        if (sortedValues == null) {
+            int n = 0;
+            for (int length : lengths) {
+                n += length;
+            }
+            double[] values = new double[n];
+            long[] weights = new long[n];
+            Integer[] order = new Integer[n];
+            int j = 0;
+            for (int h = 0; h < levels.size(); h++) {
+                double[] level = levels.get(h);
+                for (int i = 0; i < lengths.get(h); i++) {
+                    values[j] = level[i];
+                    weights[j] = 1L << h;
+                    order[j] = j;
+                    j++;
+                }
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+            sortedValues = new double[n];
+            sortedWeights = new long[n];
+            for (int i = 0; i < n; i++) {
+                sortedValues[i] = values[order[i]];
+                sortedWeights[i] = weights[order[i]];
+            }
+        }
+    }
+
+    /**
+     * A sketch containing no temperatures.
+     */
+    public static TempSketch empty() {
+        return empty(DEFAULT_K);
+    }
+
+    /**
+     * A sketch containing no temperatures, with some accuracy parameter.
+     * <p>
+     * Larger values of k are more accurate but use more memory. An exception
+     * will be thrown if k is less than 8.
+     */
+    public static TempSketch empty(int k) {
+        return new TempSketch(k, TempUnits.KELVIN);
+    }
+
+    /**
+     * Creates a sketch from a generator function, called sequentially.
+     */
+    public static TempSketch generate(int n, Supplier<Temp> generator) {
+        TempSketch sketch = empty();
+        for (int i = 0; i < n; i++) {
+            sketch.add(generator.get());
+        }
+        return sketch;
+    }
+
+    /**
+     * Creates a sketch from a generator function, called once for each index
+     * in [0, n).
+     * <p>
+     * The generator is called in parallel, with each thread adding to its own
+     * sketch, and the sketches are merged at the end. Calls for different
+     * indices must therefore not share any mutable state (eg a random number
+     * generator).
+     */
+    public static TempSketch generate(int n, IntFunction<Temp> generator) {
+        return IntStream.range(0, n).parallel().collect(
+            TempSketch::empty,
+            (sketch, i) -> sketch.add(generator.apply(i)),
+            TempSketch::merge
+        );
+    }
+
+    /**
+     * Creates a sketch containing the supplied temperatures.
+     */
+    public static TempSketch of(Iterable<Temp> temps) {
+        TempSketch sketch = empty();
+        for (Temp temp : temps) {
+            sketch.add(temp);
+        }
+        return sketch;
+    }
+}
@@ -24,6 +24,20 @@ public enum TempUnits {
         }
     }
 
+    /**
+     * Converts a temperature difference to these units.
+     * <p>
+     * Unlike {@link #convert} this ignores the offset between the scales, so
+     * is appropriate for degree-day totals and volatilities.
+     */
+    public double convertDifference(double difference, TempUnits units) {
+        if (this == units) {
+            return difference;
+        } else {
+            return difference * (convert(1, units) - convert(0, units));
+        }
+    }
+
     private static double toKelvin(double temp, TempUnits units) {
         return switch (units) {
             case KELVIN -> temp;
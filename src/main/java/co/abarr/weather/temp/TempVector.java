@@ -181,11 +181,22 @@ public class TempVector<K> extends AbstractList<TempVector.Entry<K>> implements
      * The distribution of temperatures in this vector.
      */
     public TempBag distribution() {
-        List<Temp> temps = new ArrayList<>();
-        for (Entry<K> entry : this) {
-            temps.add(entry.temp);
-        }
-        return TempBag.of(temps);
+        return TempBag.of(values, units);
+    }
+
+    /**
+     * The entries from one index (inclusive) to another (exclusive).
+     */
+    TempVector<K> slice(int from, int to) {
+        return new TempVector<>(new ArrayList<>(keys.subList(from, to)), Arrays.copyOfRange(values, from, to), units);
+    }
+
+    K keyAt(int index) {
+        return keys.get(index);
+    }
+
+    double valueAt(int index) {
+        return values[index];
     }
 
     private Temp tempAt(int index) {
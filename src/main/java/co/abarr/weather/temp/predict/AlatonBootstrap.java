@@ -0,0 +1,182 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.TempSeries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Estimates the uncertainty in the parameters of the Alaton model by a
+ * moving block bootstrap.
+ * <p>
+ * Each sample is built from blocks of consecutive observations starting at
+ * random points of the training series, until it is as long as the series,
+ * and the model is refit to that sample. Blocks keep the short-term
+ * dependence of the temperatures intact. Samples are only ever indices into
+ * the original observations, and are refit in parallel.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class AlatonBootstrap {
+    private static final Logger logger = LoggerFactory.getLogger(AlatonBootstrap.class);
+
+    private final int samples;
+    private final int blockLength;
+    private final long seed;
+
+    private AlatonBootstrap(int samples, int blockLength, long seed) {
+        this.samples = samples;
+        this.blockLength = blockLength;
+        this.seed = seed;
+        if (samples < 1) {
+            throw new IllegalArgumentException("Invalid samples: " + samples);
+        }
+        if (blockLength < 2) {
+            throw new IllegalArgumentException("Invalid block length: " + blockLength);
+        }
+    }
+
+    /**
+     * Fits the model to each bootstrap sample of the observations.
+     * <p>
+     * An exception will be thrown if the series is empty.
+     */
+    public Result run(TempSeries observed) {
+        long t0 = System.currentTimeMillis();
+        AlatonCalibration calibration = AlatonCalibration.of(observed);
+        int n = calibration.size();
+        int length = Math.min(blockLength, n);
+        int blocks = (n + length - 1) / length;
+        List<AlatonParams> fits = IntStream.range(0, samples)
+            .parallel()
+            .mapToObj(sample -> {
+                //The sample's seed is mixed before use, since generators seeded a
+                //multiple of their own increment apart would share one stream
+                SplittableRandom random = new SplittableRandom(new SplittableRandom(seed + sample * 0x9E3779B97F4A7C15L).nextLong());
+                int[] starts = new int[blocks];
+                int[] lengths = new int[blocks];
+                for (int b = 0; b < blocks; b++) {
+                    starts[b] = random.nextInt(n - length + 1);
+                    lengths[b] = Math.min(length, n - b * length);
+                }
+                return calibration.fit(starts, lengths);
+            })
+            .collect(Collectors.toList());
+        logger.info("Took {}ms to fit {} bootstrap samples", System.currentTimeMillis() - t0, samples);
+        return new Result(fits);
+    }
+
+    /**
+     * Updates the number of bootstrap samples.
+     * <p>
+     * An exception will be thrown if the number is less than one.
+     */
+    public AlatonBootstrap samples(int samples) {
+        return new AlatonBootstrap(samples, blockLength, seed);
+    }
+
+    /**
+     * Updates the number of days in each block.
+     * <p>
+     * An exception will be thrown if the length is less than two.
+     */
+    public AlatonBootstrap blockLength(int blockLength) {
+        return new AlatonBootstrap(samples, blockLength, seed);
+    }
+
+    /**
+     * Updates the seed from which the samples are drawn.
+     * <p>
+     * The same seed always gives the same samples, however many threads they
+     * are fit on.
+     */
+    public AlatonBootstrap seed(long seed) {
+        return new AlatonBootstrap(samples, blockLength, seed);
+    }
+
+    /**
+     * Creates a new bootstrap.
+     * <p>
+     * By default 1000 samples are drawn, in blocks of 30 days, from a random
+     * seed.
+     */
+    public static AlatonBootstrap create() {
+        return new AlatonBootstrap(1000, 30, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * The parameters fit to each bootstrap sample.
+     */
+    public static final class Result extends AbstractList<AlatonParams> {
+        private final List<AlatonParams> fits;
+
+        private Result(List<AlatonParams> fits) {
+            this.fits = fits;
+        }
+
+        @Override
+        public AlatonParams get(int index) {
+            return fits.get(index);
+        }
+
+        @Override
+        public int size() {
+            return fits.size();
+        }
+
+        /**
+         * The sorted values of some parameter over all samples, eg
+         * {@code AlatonParams::alpha}.
+         * <p>
+         * Samples where the parameter could not be estimated (is NaN), eg the
+         * sigma of a month the sample does not cover, are left out.
+         */
+        public double[] values(ToDoubleFunction<AlatonParams> parameter) {
+            return fits.stream()
+                .mapToDouble(parameter)
+                .filter(value -> !Double.isNaN(value))
+                .sorted()
+                .toArray();
+        }
+
+        /**
+         * A quantile of some parameter over all samples.
+         * <p>
+         * An exception will be thrown if the quantile is outside [0, 1].
+         */
+        public double quantile(ToDoubleFunction<AlatonParams> parameter, double quantile) {
+            if (Double.isNaN(quantile) || quantile < 0 || quantile > 1) {
+                throw new IllegalArgumentException("Invalid quantile: " + quantile);
+            }
+            double[] values = values(parameter);
+            double index = quantile * (values.length - 1);
+            int position = (int) index;
+            if (position + 1 >= values.length) {
+                return values[values.length - 1];
+            } else {
+                return values[position] + (values[position + 1] - values[position]) * (index - position);
+            }
+        }
+
+        /**
+         * The standard deviation of some parameter over all samples, ie its
+         * bootstrap standard error.
+         */
+        public double stdev(ToDoubleFunction<AlatonParams> parameter) {
+            double[] values = values(parameter);
+            double mean = Arrays.stream(values).average().orElse(Double.NaN);
+            double sum = 0;
+            for (double value : values) {
+                sum += (value - mean) * (value - mean);
+            }
+            return Math.sqrt(sum / (values.length - 1));
+        }
+    }
+}
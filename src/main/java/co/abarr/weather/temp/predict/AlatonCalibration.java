@@ -0,0 +1,149 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempUnits;
+
+import java.time.LocalDate;
+
+/**
+ * Fits the parameters of the Alaton model to observations.
+ * <p>
+ * The observations are unpacked into primitive arrays once, after which
+ * the model can be fit to the whole series or to any sequence of blocks of
+ * it (eg a bootstrap resample) without copying. Each fit makes two passes
+ * over the blocks: the first accumulates the mean regression and the
+ * quadratic variation of each calendar month, and the second (given
+ * the fitted mean) estimates the mean reversion, pairing consecutive
+ * observations only within a block.
+ * <p>
+ * Instances are immutable, so can be fit from several threads at once.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+final class AlatonCalibration {
+    private final LocalDate origin;
+    private final TempUnits units;
+    private final long[] days;
+    private final int[] months;
+    private final double[] values;
+
+    private AlatonCalibration(TempSeries observed) {
+        this.origin = observed.dateAt(0);
+        this.units = observed.units();
+        int n = observed.size();
+        this.days = new long[n];
+        this.months = new int[n];
+        this.values = new double[n];
+        for (int i = 0; i < n; i++) {
+            LocalDate date = observed.dateAt(i);
+            days[i] = date.toEpochDay();
+            months[i] = date.getMonthValue() - 1;
+            values[i] = observed.valueAt(i);
+        }
+    }
+
+    /**
+     * The number of observations.
+     */
+    int size() {
+        return values.length;
+    }
+
+    /**
+     * Fits the model to all observations.
+     * <p>
+     * Calendar months with no two consecutive observations have no sigma
+     * (NaN), so the fitted model cannot predict over them.
+     */
+    AlatonParams fit() {
+        return fit(new int[]{0}, new int[]{values.length});
+    }
+
+    /**
+     * Fits the model to the supplied blocks of observations, each given by
+     * its starting index and length.
+     * <p>
+     * Calendar months with no two consecutive observations have no sigma
+     * (NaN), so the fitted model cannot predict over them.
+     */
+    AlatonParams fit(int[] starts, int[] lengths) {
+        AlatonRegression regression = AlatonRegression.from(origin, units);
+        double[] qvars = qvarByMonth(starts, lengths, regression);
+        SeasonalMean mean = regression.fit();
+        double alpha = estimateAlpha(starts, lengths, mean, qvars);
+        double[] sigmas = new double[qvars.length];
+        for (int i = 0; i < qvars.length; i++) {
+            sigmas[i] = Math.sqrt(qvars[i]);
+        }
+        return AlatonParams.of(mean, alpha, sigmas);
+    }
+
+    /**
+     * The quadratic variation of each calendar month: the mean squared
+     * difference between observations on consecutive days in the same month.
+     * <p>
+     * Differences are pooled over all years, and weighted equally however
+     * the month is split between blocks, so short fragments of a month (as
+     * in a bootstrap resample) do not bias the estimate. Observations in
+     * adjacent blocks are paired if they are on consecutive days.
+     * <p>
+     * Every observation is also added to the mean regression along the way.
+     */
+    private double[] qvarByMonth(int[] starts, int[] lengths, AlatonRegression regression) {
+        double[] sums = new double[12];
+        int[] counts = new int[12];
+        int previous = -1;
+        for (int b = 0; b < starts.length; b++) {
+            for (int i = starts[b]; i < starts[b] + lengths[b]; i++) {
+                regression.add(days[i], values[i]);
+                if (previous >= 0 && days[i] == days[previous] + 1 && months[i] == months[previous]) {
+                    double difference = values[i] - values[previous];
+                    sums[months[i]] += difference * difference;
+                    counts[months[i]]++;
+                }
+                previous = i;
+            }
+        }
+        double[] qvars = new double[12];
+        for (int month = 0; month < 12; month++) {
+            qvars[month] = counts[month] == 0 ? Double.NaN : sums[month] / counts[month];
+        }
+        return qvars;
+    }
+
+    /**
+     * Estimates the mean reversion, by regressing each residual from the
+     * mean on the previous one.
+     */
+    private double estimateAlpha(int[] starts, int[] lengths, SeasonalMean mean, double[] qvars) {
+        double n = 0;
+        double d = 0;
+        for (int b = 0; b < starts.length; b++) {
+            int start = starts[b];
+            double previousResidual = values[start] - mean.meanAt(days[start]);
+            for (int i = start + 1; i < start + lengths[b]; i++) {
+                double residual = values[i] - mean.meanAt(days[i]);
+                double z = previousResidual / qvars[months[i - 1]];
+                if (!Double.isNaN(z)) {
+                    n += z * residual;
+                    d += z * previousResidual;
+                }
+                previousResidual = residual;
+            }
+        }
+        return -Math.log(n / d);
+    }
+
+    /**
+     * Prepares to fit the supplied observations.
+     * <p>
+     * An exception will be thrown if the series is empty.
+     */
+    static AlatonCalibration of(TempSeries observed) {
+        if (observed.isEmpty()) {
+            throw new IllegalArgumentException("Empty training series");
+        } else {
+            return new AlatonCalibration(observed);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.TempUnits;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The parameters of a trained Alaton model: the seasonal mean, the mean
+ * reversion and the volatility of each month.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public final class AlatonParams extends ModelParams {
+    static final String NAME = "alaton";
+
+    private final SeasonalMean mean;
+    private final double alpha;
+    private final double[] sigmas;
+
+    private AlatonParams(SeasonalMean mean, double alpha, double[] sigmas) {
+        this.mean = Objects.requireNonNull(mean);
+        this.alpha = alpha;
+        this.sigmas = sigmas.clone();
+        if (sigmas.length != 12) {
+            throw new IllegalArgumentException("Invalid number of sigmas: " + sigmas.length);
+        }
+        MonthlySigmas.check(this.sigmas);
+    }
+
+    /**
+     * The expected temperature model.
+     */
+    public SeasonalMean mean() {
+        return mean;
+    }
+
+    /**
+     * The mean reversion per day.
+     */
+    public double alpha() {
+        return alpha;
+    }
+
+    /**
+     * The volatility of each month, in calendar order and in the units of the
+     * mean.
+     */
+    public double[] sigmas() {
+        return sigmas.clone();
+    }
+
+    @Override
+    public TempPredictor toPredictor() {
+        return OrnsteinUhlenbeck.on(mean).alpha(alpha).sigma(SigmaSchedule.monthly(sigmas, mean.units()));
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeByte(ALATON);
+        writeUnits(out, mean.units());
+        out.writeLong(mean.origin().toEpochDay());
+        out.writeDouble(mean.a());
+        out.writeDouble(mean.b());
+        out.writeDouble(mean.c());
+        out.writeDouble(mean.theta());
+        out.writeDouble(alpha);
+        for (double sigma : sigmas) {
+            out.writeDouble(sigma);
+        }
+    }
+
+    @Override
+    public String format() {
+        List<String> fields = new ArrayList<>();
+        fields.add(NAME);
+        fields.add(mean.units().name());
+        fields.add(mean.origin().toString());
+        fields.add(Double.toString(mean.a()));
+        fields.add(Double.toString(mean.b()));
+        fields.add(Double.toString(mean.c()));
+        fields.add(Double.toString(mean.theta()));
+        fields.add(Double.toString(alpha));
+        for (double sigma : sigmas) {
+            fields.add(Double.toString(sigma));
+        }
+        return String.join(" ", fields);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AlatonParams that = (AlatonParams) o;
+        return Double.compare(that.alpha, alpha) == 0 && mean.equals(that.mean) && Arrays.equals(sigmas, that.sigmas);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hash(mean, alpha) + Arrays.hashCode(sigmas);
+    }
+
+    static AlatonParams readBody(DataInput in) throws IOException {
+        TempUnits units = readUnits(in);
+        LocalDate origin = LocalDate.ofEpochDay(in.readLong());
+        double a = in.readDouble();
+        double b = in.readDouble();
+        double c = in.readDouble();
+        double theta = in.readDouble();
+        double alpha = in.readDouble();
+        double[] sigmas = new double[12];
+        for (int i = 0; i < sigmas.length; i++) {
+            sigmas[i] = in.readDouble();
+        }
+        return of(SeasonalMean.of(origin, a, b, c, theta, units), alpha, sigmas);
+    }
+
+    static AlatonParams parseFields(String[] fields) {
+        expectFields(fields, 20);
+        SeasonalMean mean = SeasonalMean.of(
+            LocalDate.parse(fields[2]),
+            Double.parseDouble(fields[3]),
+            Double.parseDouble(fields[4]),
+            Double.parseDouble(fields[5]),
+            Double.parseDouble(fields[6]),
+            TempUnits.valueOf(fields[1])
+        );
+        double[] sigmas = new double[12];
+        for (int i = 0; i < sigmas.length; i++) {
+            sigmas[i] = Double.parseDouble(fields[8 + i]);
+        }
+        return of(mean, Double.parseDouble(fields[7]), sigmas);
+    }
+
+    /**
+     * Creates new parameters.
+     * <p>
+     * A NaN sigma marks a month with no estimate, which the model cannot
+     * predict over. An exception will be thrown if there are not 12 sigmas,
+     * or any sigma is negative or infinite.
+     */
+    public static AlatonParams of(SeasonalMean mean, double alpha, double[] sigmas) {
+        return new AlatonParams(mean, alpha, sigmas);
+    }
+}
@@ -0,0 +1,147 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.math.SymmetricSolver;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempUnits;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * An online fit of the {@link SeasonalMean} model.
+ * <p>
+ * Since the regressors are just [1, t, sin(w * t), cos(w * t)], only the 4x4
+ * normal equations are kept, so adding or removing an observation is O(1)
+ * and fitting never needs the full design matrix. This is useful for
+ * sliding a training window forward one day at a time. The trend is
+ * regressed on time in years rather than days, which keeps the normal
+ * equations well conditioned over long series.
+ * <p>
+ * Instances are not thread-safe.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class AlatonRegression {
+    private static final int N = 4;
+    private static final double DAYS_PER_YEAR = 365.25;
+
+    private final LocalDate origin;
+    private final TempUnits units;
+    private final double[] xtx = new double[N * N];
+    private final double[] xty = new double[N];
+    private final double[] x = new double[N];
+    private int size;
+
+    private AlatonRegression(LocalDate origin, TempUnits units) {
+        this.origin = Objects.requireNonNull(origin);
+        this.units = Objects.requireNonNull(units);
+    }
+
+    /**
+     * Adds an observation (in the units of the regression).
+     */
+    public AlatonRegression add(LocalDate date, double temp) {
+        update(SeasonalMean.t(origin, date), temp, 1);
+        size++;
+        return this;
+    }
+
+    /**
+     * Adds an observation (in the units of the regression) on some day.
+     */
+    AlatonRegression add(long epochDay, double temp) {
+        update((int) (epochDay - origin.toEpochDay()) + 1, temp, 1);
+        size++;
+        return this;
+    }
+
+    /**
+     * Removes a previously added observation.
+     */
+    public AlatonRegression remove(LocalDate date, double temp) {
+        update(SeasonalMean.t(origin, date), temp, -1);
+        size--;
+        return this;
+    }
+
+    /**
+     * Adds all observations in a series.
+     */
+    public AlatonRegression add(TempSeries series) {
+        series = series.to(units);
+        for (int i = 0; i < series.size(); i++) {
+            add(series.dateAt(i), series.valueAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Removes all observations in a series.
+     */
+    public AlatonRegression remove(TempSeries series) {
+        series = series.to(units);
+        for (int i = 0; i < series.size(); i++) {
+            remove(series.dateAt(i), series.valueAt(i));
+        }
+        return this;
+    }
+
+    private void update(int t, double temp, int sign) {
+        x[0] = 1;
+        x[1] = t / DAYS_PER_YEAR;
+        x[2] = Math.sin(SeasonalMean.W * t);
+        x[3] = Math.cos(SeasonalMean.W * t);
+        for (int i = 0; i < N; i++) {
+            xty[i] += sign * x[i] * temp;
+            for (int j = i; j < N; j++) {
+                xtx[i * N + j] += sign * x[i] * x[j];
+            }
+        }
+    }
+
+    /**
+     * The number of observations in the regression.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Fits the model to the current observations.
+     * <p>
+     * An exception will be thrown if there are too few observations.
+     */
+    public SeasonalMean fit() {
+        if (size < N) {
+            throw new IllegalStateException("Too few observations: " + size);
+        } else {
+            double[] coefficients = SymmetricSolver.solve(xtx, xty);
+            coefficients[1] /= DAYS_PER_YEAR;
+            return SeasonalMean.fromCoefficients(origin, coefficients, units);
+        }
+    }
+
+    /**
+     * Creates an empty regression.
+     * <p>
+     * Time is measured in days from the origin, and all observations are
+     * assumed to be in the supplied units.
+     */
+    public static AlatonRegression from(LocalDate origin, TempUnits units) {
+        return new AlatonRegression(origin, units);
+    }
+
+    /**
+     * Creates a regression containing all observations in a series.
+     * <p>
+     * The origin is the first date in the series. An exception will be thrown
+     * if the series is empty.
+     */
+    public static AlatonRegression of(TempSeries series) {
+        if (series.isEmpty()) {
+            throw new IllegalArgumentException("Empty training series");
+        } else {
+            return from(series.get(0).date(), series.units()).add(series);
+        }
+    }
+}
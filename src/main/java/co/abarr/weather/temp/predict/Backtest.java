@@ -0,0 +1,265 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.math.Fraction;
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempBag;
+import co.abarr.weather.temp.TempDistribution;
+import co.abarr.weather.temp.TempIndexer;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.time.DateRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walk-forward evaluation of a trainer.
+ * <p>
+ * For each cut-off date the trainer is fit to the observations before the
+ * cut-off, and the predicted distribution of an index over the following
+ * period is scored against the index actually observed. Windows are
+ * evaluated in parallel.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class Backtest {
+    private static final Logger logger = LoggerFactory.getLogger(Backtest.class);
+
+    private final TempTrainer trainer;
+    private final TempIndexer indexer;
+    private final Period horizon;
+    private final int paths;
+
+    private Backtest(TempTrainer trainer, TempIndexer indexer, Period horizon, int paths) {
+        this.trainer = Objects.requireNonNull(trainer);
+        this.indexer = Objects.requireNonNull(indexer);
+        this.horizon = Objects.requireNonNull(horizon);
+        this.paths = paths;
+        if (horizon.isNegative() || horizon.isZero()) {
+            throw new IllegalArgumentException("Invalid horizon: " + horizon);
+        }
+        if (paths < 1) {
+            throw new IllegalArgumentException("Invalid paths: " + paths);
+        }
+    }
+
+    /**
+     * Runs the backtest over the supplied cut-off dates.
+     * <p>
+     * Cut-offs are skipped if there is no training data before them, the
+     * series does not cover every date in the following period, or the
+     * trained model cannot forecast that period (eg the training data does
+     * not cover one of its months).
+     */
+    public Result run(TempSeries series, Iterable<LocalDate> cutoffs) {
+        long t0 = System.currentTimeMillis();
+        List<Window> windows = StreamSupport.stream(cutoffs.spliterator(), false)
+            .collect(Collectors.toList())
+            .parallelStream()
+            .map(cutoff -> run(series, cutoff))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        logger.info("Took {}ms to backtest {} windows", System.currentTimeMillis() - t0, windows.size());
+        return new Result(windows);
+    }
+
+    private Window run(TempSeries series, LocalDate cutoff) {
+        DateRange range = DateRange.of(cutoff, cutoff.plus(horizon));
+        TempSeries train = series.head(cutoff);
+        TempSeries actual = series.subSeries(range);
+        if (train.isEmpty() || actual.size() < range.size()) {
+            return null;
+        } else {
+            try {
+                TempBag forecast = trainer.train(train).simulate(range, indexer, paths);
+                return new Window(range, actual.apply(indexer), forecast);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Skipping cut-off {}: {}", cutoff, e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Updates the index that is forecast.
+     */
+    public Backtest indexer(TempIndexer indexer) {
+        return new Backtest(trainer, indexer, horizon, paths);
+    }
+
+    /**
+     * Updates the length of the period following each cut-off.
+     * <p>
+     * An exception will be thrown if the horizon is not positive.
+     */
+    public Backtest horizon(Period horizon) {
+        return new Backtest(trainer, indexer, horizon, paths);
+    }
+
+    /**
+     * Updates the number of paths simulated per window.
+     * <p>
+     * An exception will be thrown if the number is less than one.
+     */
+    public Backtest paths(int paths) {
+        return new Backtest(trainer, indexer, horizon, paths);
+    }
+
+    /**
+     * Creates a new backtest of the supplied trainer.
+     * <p>
+     * By default the standard US HDD index is forecast for one month after each
+     * cut-off, using 1000 paths.
+     */
+    public static Backtest of(TempTrainer trainer) {
+        return new Backtest(trainer, TempIndexer.HDD_65, Period.ofMonths(1), 1000);
+    }
+
+    /**
+     * Regularly spaced cut-off dates from start (inclusive) to end (exclusive).
+     */
+    public static List<LocalDate> cutoffs(LocalDate start, LocalDate end, Period step) {
+        if (step.isNegative() || step.isZero()) {
+            throw new IllegalArgumentException("Invalid step: " + step);
+        } else {
+            List<LocalDate> cutoffs = new ArrayList<>();
+            for (int i = 0; start.plus(step.multipliedBy(i)).isBefore(end); i++) {
+                cutoffs.add(start.plus(step.multipliedBy(i)));
+            }
+            return cutoffs;
+        }
+    }
+
+    /**
+     * The forecast and outcome for a single cut-off.
+     */
+    public static final class Window {
+        private final DateRange range;
+        private final Temp actual;
+        private final TempDistribution forecast;
+
+        private Window(DateRange range, Temp actual, TempDistribution forecast) {
+            this.range = range;
+            this.actual = actual;
+            this.forecast = forecast;
+        }
+
+        /**
+         * The cut-off date.
+         */
+        public LocalDate cutoff() {
+            return range.start();
+        }
+
+        /**
+         * The period that was forecast.
+         */
+        public DateRange range() {
+            return range;
+        }
+
+        /**
+         * The observed index value.
+         */
+        public Temp actual() {
+            return actual;
+        }
+
+        /**
+         * The forecast distribution of the index.
+         */
+        public TempDistribution forecast() {
+            return forecast;
+        }
+
+        /**
+         * The forecast mean less the observed value.
+         */
+        public Temp error() {
+            return forecast.mean().orElseThrow().minus(actual);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: actual=%s, error=%s", range, actual, error());
+        }
+    }
+
+    /**
+     * The results of a backtest, ordered by cut-off.
+     */
+    public static final class Result extends AbstractList<Window> {
+        private final List<Window> windows;
+
+        private Result(List<Window> windows) {
+            this.windows = windows;
+        }
+
+        @Override
+        public Window get(int index) {
+            return windows.get(index);
+        }
+
+        @Override
+        public int size() {
+            return windows.size();
+        }
+
+        /**
+         * The mean error, if there is one.
+         */
+        public Optional<Temp> bias() {
+            return errors(Temp::doubleValue);
+        }
+
+        /**
+         * The mean absolute error, if there is one.
+         */
+        public Optional<Temp> meanAbsoluteError() {
+            return errors(error -> Math.abs(error.doubleValue()));
+        }
+
+        /**
+         * The root mean squared error, if there is one.
+         */
+        public Optional<Temp> rootMeanSquaredError() {
+            return errors(error -> error.doubleValue() * error.doubleValue()).map(
+                mse -> Temp.of(Math.sqrt(mse.doubleValue()), mse.units())
+            );
+        }
+
+        /**
+         * The fraction of windows where the observed value was at or below
+         * some quantile of the forecast, if there are any windows.
+         * <p>
+         * For a well calibrated model this should be close to the quantile.
+         */
+        public Optional<Fraction> coverage(Fraction quantile) {
+            if (windows.isEmpty()) {
+                return Optional.empty();
+            } else {
+                long covered = windows.stream()
+                    .filter(window -> window.forecast.quantileOf(window.actual).compareTo(quantile) <= 0)
+                    .count();
+                return Optional.of(Fraction.of(covered / (double) windows.size()));
+            }
+        }
+
+        private Optional<Temp> errors(ToDoubleFunction<Temp> metric) {
+            if (windows.isEmpty()) {
+                return Optional.empty();
+            } else {
+                double sum = 0;
+                for (Window window : windows) {
+                    sum += metric.applyAsDouble(window.error());
+                }
+                return Optional.of(Temp.of(sum / windows.size(), windows.get(0).actual.units()));
+            }
+        }
+    }
+}
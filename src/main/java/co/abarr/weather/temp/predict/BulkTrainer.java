@@ -0,0 +1,169 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.TempSeries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Trains a model on many series (eg one per station) concurrently.
+ * <p>
+ * Series are trained on a fixed-size pool of threads. A failure to train one
+ * series is recorded against it, and does not affect the others.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class BulkTrainer {
+    private static final Logger logger = LoggerFactory.getLogger(BulkTrainer.class);
+
+    private final TempTrainer trainer;
+    private final int threads;
+
+    private BulkTrainer(TempTrainer trainer, int threads) {
+        this.trainer = Objects.requireNonNull(trainer);
+        this.threads = threads;
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid threads: " + threads);
+        }
+    }
+
+    /**
+     * Trains the model on every series.
+     * <p>
+     * Blocks until all series have been trained. An exception will be thrown
+     * if the calling thread is interrupted while waiting.
+     */
+    public <K> Result<K> train(Map<K, TempSeries> series) {
+        long t0 = System.nanoTime();
+        List<K> keys = new ArrayList<>(series.keySet());
+        List<Callable<Outcome>> tasks = new ArrayList<>();
+        for (K key : keys) {
+            TempSeries observed = series.get(key);
+            tasks.add(() -> train(observed));
+        }
+        Map<K, TempPredictor> predictors = new LinkedHashMap<>();
+        Map<K, Duration> timings = new LinkedHashMap<>();
+        Map<K, RuntimeException> failures = new LinkedHashMap<>();
+        if (!tasks.isEmpty()) {
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+            try {
+                List<Future<Outcome>> futures = executor.invokeAll(tasks);
+                for (int i = 0; i < keys.size(); i++) {
+                    Outcome outcome = futures.get(i).get();
+                    timings.put(keys.get(i), outcome.elapsed);
+                    if (outcome.failure == null) {
+                        predictors.put(keys.get(i), outcome.predictor);
+                    } else {
+                        logger.warn("Failed to train {}", keys.get(i), outcome.failure);
+                        failures.put(keys.get(i), outcome.failure);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while training", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Unexpected training error", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - t0);
+        logger.info("Took {}ms to train {} series ({} failed)", elapsed.toMillis(), keys.size(), failures.size());
+        return new Result<>(predictors, timings, failures, elapsed);
+    }
+
+    private Outcome train(TempSeries observed) {
+        long t0 = System.nanoTime();
+        try {
+            TempPredictor predictor = trainer.train(observed);
+            return new Outcome(predictor, null, Duration.ofNanos(System.nanoTime() - t0));
+        } catch (RuntimeException e) {
+            return new Outcome(null, e, Duration.ofNanos(System.nanoTime() - t0));
+        }
+    }
+
+    /**
+     * Updates the number of threads to train on.
+     * <p>
+     * An exception will be thrown if the number is less than one.
+     */
+    public BulkTrainer threads(int threads) {
+        return new BulkTrainer(trainer, threads);
+    }
+
+    /**
+     * Creates a new bulk trainer.
+     * <p>
+     * By default there is one thread per available processor.
+     */
+    public static BulkTrainer of(TempTrainer trainer) {
+        return new BulkTrainer(trainer, Runtime.getRuntime().availableProcessors());
+    }
+
+    private static final class Outcome {
+        private final TempPredictor predictor;
+        private final RuntimeException failure;
+        private final Duration elapsed;
+
+        private Outcome(TempPredictor predictor, RuntimeException failure, Duration elapsed) {
+            this.predictor = predictor;
+            this.failure = failure;
+            this.elapsed = elapsed;
+        }
+    }
+
+    /**
+     * The predictors trained successfully, by key, along with any failures.
+     */
+    public static final class Result<K> extends AbstractMap<K, TempPredictor> {
+        private final Map<K, TempPredictor> predictors;
+        private final Map<K, Duration> timings;
+        private final Map<K, RuntimeException> failures;
+        private final Duration elapsed;
+
+        private Result(Map<K, TempPredictor> predictors, Map<K, Duration> timings, Map<K, RuntimeException> failures, Duration elapsed) {
+            this.predictors = predictors;
+            this.timings = timings;
+            this.failures = failures;
+            this.elapsed = elapsed;
+        }
+
+        @Override
+        public TempPredictor get(Object key) {
+            return predictors.get(key);
+        }
+
+        @Override
+        public Set<Entry<K, TempPredictor>> entrySet() {
+            return Collections.unmodifiableSet(predictors.entrySet());
+        }
+
+        /**
+         * How long each series took to train, whether or not it succeeded.
+         */
+        public Map<K, Duration> timings() {
+            return Collections.unmodifiableMap(timings);
+        }
+
+        /**
+         * The exception thrown for each series that failed to train.
+         */
+        public Map<K, RuntimeException> failures() {
+            return Collections.unmodifiableMap(failures);
+        }
+
+        /**
+         * How long it took to train all series.
+         */
+        public Duration elapsed() {
+            return elapsed;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempIndexer;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempVector;
+import co.abarr.weather.time.DateRange;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.Year;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Historical burn analysis of a recurring contract window.
+ * <p>
+ * Calculates what an index would have been for the same contract window
+ * (eg 1 Nov to 1 Apr) in every year covered by a series. Each year is
+ * keyed by the year in which its window starts, and only windows that lie
+ * entirely within the span of the series are included.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class BurnAnalysis {
+    private final MonthDay start;
+    private final MonthDay end;
+    private final TempIndexer indexer;
+    private final SeasonalMean trend;
+
+    private BurnAnalysis(MonthDay start, MonthDay end, TempIndexer indexer, SeasonalMean trend) {
+        this.start = Objects.requireNonNull(start);
+        this.end = Objects.requireNonNull(end);
+        this.indexer = Objects.requireNonNull(indexer);
+        this.trend = trend;
+    }
+
+    /**
+     * Calculates the index for every year covered by the series.
+     */
+    public TempVector<Year> apply(TempSeries series) {
+        Map<Year, DateRange> windows = new LinkedHashMap<>();
+        LocalDate latest = null;
+        if (!series.isEmpty()) {
+            LocalDate first = series.get(0).date();
+            LocalDate last = series.get(series.size() - 1).date();
+            for (int year = first.getYear() - 1; year <= last.getYear(); year++) {
+                DateRange window = window(year);
+                if (!window.start().isBefore(first) && !window.end().isAfter(last.plusDays(1))) {
+                    windows.put(Year.of(year), window);
+                    latest = window.start();
+                }
+            }
+        }
+        Map<Year, Temp> indices = new LinkedHashMap<>();
+        for (Map.Entry<Year, DateRange> entry : windows.entrySet()) {
+            TempSeries window = series.subSeries(entry.getValue());
+            if (trend != null) {
+                window = detrend(window, entry.getValue().start(), latest);
+            }
+            indices.put(entry.getKey(), window.apply(indexer));
+        }
+        return TempVector.of(indices);
+    }
+
+    /**
+     * Shifts the temperatures in a window by the trend between its start and
+     * the start of the latest window.
+     */
+    private TempSeries detrend(TempSeries window, LocalDate from, LocalDate to) {
+        double days = to.toEpochDay() - from.toEpochDay();
+        Temp shift = Temp.of(window.units().convertDifference(trend.b() * days, trend.units()), window.units());
+        return window.map((date, temp) -> temp.plus(shift));
+    }
+
+    private DateRange window(int year) {
+        LocalDate from = start.atYear(year);
+        LocalDate to = end.atYear(year);
+        if (!to.isAfter(from)) {
+            to = end.atYear(year + 1);
+        }
+        return DateRange.of(from, to);
+    }
+
+    /**
+     * Adjusts each year for the linear trend of a fitted mean model, so that
+     * all years are comparable with the latest one.
+     */
+    public BurnAnalysis detrended(SeasonalMean trend) {
+        return new BurnAnalysis(start, end, indexer, Objects.requireNonNull(trend));
+    }
+
+    /**
+     * Creates a new burn analysis.
+     * <p>
+     * The window runs from the start day (inclusive) to the end day
+     * (exclusive), wrapping into the following year if the end is not after
+     * the start.
+     */
+    public static BurnAnalysis of(MonthDay start, MonthDay end, TempIndexer indexer) {
+        return new BurnAnalysis(start, end, indexer, null);
+    }
+}
@@ -0,0 +1,163 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.TempSeries;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A trainer that remembers the predictors it has already trained.
+ * <p>
+ * Predictors are keyed on the content of the training series (including
+ * its units and date window), and the least recently used predictor is
+ * evicted once the cache is full.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class CachingTrainer implements TempTrainer {
+    private final TempTrainer delegate;
+    private final int maxSize;
+    private final Map<Key, TempPredictor> cache;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private CachingTrainer(TempTrainer delegate, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Invalid max size: " + maxSize);
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, TempPredictor> eldest) {
+                if (size() > CachingTrainer.this.maxSize) {
+                    evictions++;
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+        };
+    }
+
+    /**
+     * Trains a model on the supplied training data, or returns the model
+     * previously trained on the same data.
+     */
+    @Override
+    public TempPredictor train(TempSeries train) {
+        Key key = new Key(train);
+        synchronized (cache) {
+            TempPredictor cached = cache.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            } else {
+                misses++;
+            }
+        }
+        TempPredictor trained = delegate.train(train);
+        synchronized (cache) {
+            TempPredictor raced = cache.putIfAbsent(key, trained);
+            return raced == null ? trained : raced;
+        }
+    }
+
+    /**
+     * The number of predictors currently cached.
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * The number of calls answered from the cache.
+     */
+    public long hits() {
+        synchronized (cache) {
+            return hits;
+        }
+    }
+
+    /**
+     * The number of calls that required training.
+     */
+    public long misses() {
+        synchronized (cache) {
+            return misses;
+        }
+    }
+
+    /**
+     * The number of predictors dropped to make room for newer ones.
+     */
+    public long evictions() {
+        synchronized (cache) {
+            return evictions;
+        }
+    }
+
+    /**
+     * Drops all cached predictors.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (cache) {
+            return String.format("%s[size=%s, hits=%s, misses=%s, evictions=%s]", delegate, cache.size(), hits, misses, evictions);
+        }
+    }
+
+    /**
+     * Creates a new cache in front of the supplied trainer.
+     * <p>
+     * An exception will be thrown if the trainer is null or the max size is
+     * less than one.
+     */
+    public static CachingTrainer of(TempTrainer delegate, int maxSize) {
+        return new CachingTrainer(delegate, maxSize);
+    }
+
+    /**
+     * Training series compared by content, but hashed only once.
+     */
+    private static final class Key {
+        private final TempSeries series;
+        private final int hash;
+
+        private Key(TempSeries series) {
+            this.series = series;
+            this.hash = series.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return hash == key.hash && (series == key.series || sameWindow(series, key.series) && series.equals(key.series));
+        }
+
+        private static boolean sameWindow(TempSeries a, TempSeries b) {
+            if (a.size() != b.size() || a.units() != b.units()) {
+                return false;
+            } else {
+                return a.isEmpty() || a.get(0).date().equals(b.get(0).date()) && a.get(a.size() - 1).date().equals(b.get(b.size() - 1).date());
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
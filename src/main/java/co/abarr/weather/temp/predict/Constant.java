@@ -5,6 +5,7 @@ import co.abarr.weather.temp.TempSeries;
 import co.abarr.weather.time.DateRange;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Created by adam on 04/12/2020.
@@ -20,4 +21,9 @@ class Constant implements TempPredictor {
     public TempSeries predict(DateRange range) {
         return TempSeries.of(range, (int i) -> temp);
     }
+
+    @Override
+    public Optional<ModelParams> params() {
+        return Optional.of(ConstantParams.of(temp));
+    }
 }
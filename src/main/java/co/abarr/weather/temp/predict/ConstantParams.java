@@ -0,0 +1,78 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempUnits;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * The parameters of a predictor of a constant temperature.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public final class ConstantParams extends ModelParams {
+    static final String NAME = "constant";
+
+    private final Temp temp;
+
+    private ConstantParams(Temp temp) {
+        this.temp = Objects.requireNonNull(temp);
+    }
+
+    /**
+     * The predicted temperature.
+     */
+    public Temp temp() {
+        return temp;
+    }
+
+    @Override
+    public TempPredictor toPredictor() {
+        return TempPredictor.of(temp);
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeByte(CONSTANT);
+        writeUnits(out, temp.units());
+        out.writeDouble(temp.doubleValue());
+    }
+
+    @Override
+    public String format() {
+        return String.join(" ", NAME, temp.units().name(), Double.toString(temp.doubleValue()));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ConstantParams that = (ConstantParams) o;
+        return temp.equals(that.temp);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(temp);
+    }
+
+    static ConstantParams readBody(DataInput in) throws IOException {
+        TempUnits units = readUnits(in);
+        return of(Temp.of(in.readDouble(), units));
+    }
+
+    static ConstantParams parseFields(String[] fields) {
+        expectFields(fields, 3);
+        return of(Temp.of(Double.parseDouble(fields[2]), TempUnits.valueOf(fields[1])));
+    }
+
+    /**
+     * Creates new parameters.
+     */
+    public static ConstantParams of(Temp temp) {
+        return new ConstantParams(temp);
+    }
+}
@@ -0,0 +1,235 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempBag;
+import co.abarr.weather.temp.TempIndexer;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.time.DateRange;
+import org.jblas.Decompose;
+import org.jblas.DoubleMatrix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Simulates several stations together, with correlated daily shocks.
+ * <p>
+ * Each station follows its own Ornstein-Uhlenbeck model, but the standard
+ * normal shocks driving the stations on any one day are correlated. The
+ * correlation matrix is factorised once, and the shocks for all stations
+ * over a whole range are generated in a single matrix multiplication.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class CorrelatedStations<K> {
+    private static final Logger logger = LoggerFactory.getLogger(CorrelatedStations.class);
+
+    private final List<K> keys;
+    private final List<OrnsteinUhlenbeck> predictors;
+    private final double[][] correlation;
+    private final DoubleMatrix factor;
+    private final Random random;
+
+    private CorrelatedStations(List<K> keys, List<OrnsteinUhlenbeck> predictors, double[][] correlation, DoubleMatrix factor, Random random) {
+        this.keys = keys;
+        this.predictors = predictors;
+        this.correlation = correlation;
+        this.factor = factor;
+        this.random = Objects.requireNonNull(random);
+    }
+
+    /**
+     * Predicts a path for every station over the supplied date range.
+     */
+    public Map<K, TempSeries> predict(DateRange range) {
+        int n = range.size();
+        DoubleMatrix normals = new DoubleMatrix(keys.size(), n);
+        for (int i = 0; i < normals.data.length; i++) {
+            normals.data[i] = random.nextGaussian();
+        }
+        DoubleMatrix shocks = factor.mmul(normals);
+        Map<K, TempSeries> paths = new LinkedHashMap<>();
+        for (int s = 0; s < keys.size(); s++) {
+            double[] station = new double[n];
+            for (int i = 0; i < n; i++) {
+                station[i] = shocks.get(s, i);
+            }
+            paths.put(keys.get(s), predictors.get(s).predict(range, station));
+        }
+        return paths;
+    }
+
+    /**
+     * Estimates the distribution of a basket index over the supplied date
+     * range, ie the sum of the index over all stations.
+     * <p>
+     * An exception will be thrown if the number of paths is less than one.
+     */
+    public TempBag simulate(DateRange range, TempIndexer indexer, int paths) {
+        if (paths < 1) {
+            throw new IllegalArgumentException("Invalid paths: " + paths);
+        }
+        return TempBag.generate(paths, () -> {
+            Temp basket = null;
+            for (TempSeries path : predict(range).values()) {
+                Temp index = path.apply(indexer);
+                basket = basket == null ? index : basket.plus(index);
+            }
+            return basket;
+        });
+    }
+
+    /**
+     * The stations, in the order of the rows of the correlation matrix.
+     */
+    public List<K> stations() {
+        return Collections.unmodifiableList(keys);
+    }
+
+    /**
+     * The correlation matrix of the daily shocks.
+     */
+    public double[][] correlation() {
+        double[][] copy = new double[correlation.length][];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = correlation[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Updates the random number generator.
+     */
+    public CorrelatedStations<K> random(Random random) {
+        return new CorrelatedStations<>(keys, predictors, correlation, factor, random);
+    }
+
+    /**
+     * Creates a new simulator from a correlation matrix, whose rows are in the
+     * iteration order of the predictors.
+     * <p>
+     * An exception will be thrown if any predictor is not an Ornstein-Uhlenbeck
+     * predictor, or the matrix is the wrong size or not a valid correlation
+     * matrix.
+     */
+    public static <K> CorrelatedStations<K> of(Map<K, ? extends TempPredictor> predictors, double[][] correlation) {
+        List<K> keys = new ArrayList<>(predictors.keySet());
+        List<OrnsteinUhlenbeck> list = new ArrayList<>();
+        for (K key : keys) {
+            TempPredictor predictor = predictors.get(key);
+            if (!(predictor instanceof OrnsteinUhlenbeck)) {
+                throw new IllegalArgumentException("Not an Ornstein-Uhlenbeck predictor: " + key);
+            }
+            list.add((OrnsteinUhlenbeck) predictor);
+        }
+        int k = keys.size();
+        if (correlation.length != k) {
+            throw new IllegalArgumentException("Invalid correlation matrix size: " + correlation.length);
+        }
+        double[][] copy = new double[k][];
+        for (int i = 0; i < k; i++) {
+            if (correlation[i].length != k) {
+                throw new IllegalArgumentException("Invalid correlation matrix size: " + correlation[i].length);
+            }
+            copy[i] = correlation[i].clone();
+            if (copy[i][i] != 1) {
+                throw new IllegalArgumentException("Invalid correlation matrix diagonal: " + copy[i][i]);
+            }
+            for (int j = 0; j < i; j++) {
+                if (copy[i][j] != copy[j][i]) {
+                    throw new IllegalArgumentException("Correlation matrix is not symmetric");
+                }
+            }
+        }
+        return new CorrelatedStations<>(keys, list, copy, factorise(copy), new Random());
+    }
+
+    /**
+     * Creates a new simulator, estimating the correlation of the daily shocks
+     * from aligned historical observations of each station.
+     * <p>
+     * Only days on which every station has a shock (ie an observation on both
+     * that day and the day before) are used. An exception will be thrown if
+     * any station has no observations, or there are too few aligned days.
+     */
+    public static <K> CorrelatedStations<K> fit(Map<K, ? extends TempPredictor> predictors, Map<K, TempSeries> observed) {
+        CorrelatedStations<K> independent = of(predictors, identity(predictors.size()));
+        int k = independent.keys.size();
+        Map<LocalDate, double[]> aligned = new TreeMap<>();
+        for (int s = 0; s < k; s++) {
+            TempSeries series = observed.get(independent.keys.get(s));
+            if (series == null) {
+                throw new IllegalArgumentException("No observations for " + independent.keys.get(s));
+            }
+            double[] shocks = independent.predictors.get(s).shocks(series);
+            for (int i = 0; i < shocks.length; i++) {
+                aligned.computeIfAbsent(series.dateAt(i), date -> nans(k))[s] = shocks[i];
+            }
+        }
+        double[] sums = new double[k];
+        double[][] products = new double[k][k];
+        int n = 0;
+        for (double[] shocks : aligned.values()) {
+            if (Arrays.stream(shocks).noneMatch(Double::isNaN)) {
+                n++;
+                for (int i = 0; i < k; i++) {
+                    sums[i] += shocks[i];
+                    for (int j = 0; j <= i; j++) {
+                        products[i][j] += shocks[i] * shocks[j];
+                    }
+                }
+            }
+        }
+        if (n < 2) {
+            throw new IllegalArgumentException("Too few aligned observations: " + n);
+        }
+        double[][] correlation = identity(k);
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j < i; j++) {
+                double covariance = products[i][j] - sums[i] * sums[j] / n;
+                double vi = products[i][i] - sums[i] * sums[i] / n;
+                double vj = products[j][j] - sums[j] * sums[j] / n;
+                correlation[i][j] = correlation[j][i] = covariance / Math.sqrt(vi * vj);
+            }
+        }
+        logger.info("Estimated shock correlation from {} days: {}", n, Arrays.deepToString(correlation));
+        return of(predictors, correlation);
+    }
+
+    private static double[] nans(int k) {
+        double[] nans = new double[k];
+        Arrays.fill(nans, Double.NaN);
+        return nans;
+    }
+
+    private static double[][] identity(int k) {
+        double[][] identity = new double[k][k];
+        for (int i = 0; i < k; i++) {
+            identity[i][i] = 1;
+        }
+        return identity;
+    }
+
+    /**
+     * The lower-triangular L with L * L' equal to the correlation matrix.
+     */
+    private static DoubleMatrix factorise(double[][] correlation) {
+        if (correlation.length == 0) {
+            return new DoubleMatrix(0, 0);
+        }
+        DoubleMatrix upper;
+        try {
+            upper = Decompose.cholesky(new DoubleMatrix(correlation));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Correlation matrix is not positive definite", e);
+        }
+        for (double value : upper.data) {
+            if (Double.isNaN(value)) {
+                throw new IllegalArgumentException("Correlation matrix is not positive definite");
+            }
+        }
+        return upper.transpose();
+    }
+}
@@ -0,0 +1,96 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.TempUnits;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The parameters of a trained model, from which an identical predictor can
+ * be recreated without refitting.
+ * <p>
+ * Parameters can be written to a compact binary format, or formatted as a
+ * single line of text, and read back exactly.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public abstract class ModelParams {
+    static final byte CONSTANT = 1;
+    static final byte ALATON = 2;
+
+    ModelParams() {
+    }
+
+    /**
+     * Creates a predictor with these parameters.
+     */
+    public abstract TempPredictor toPredictor();
+
+    /**
+     * Writes the parameters in binary.
+     */
+    public abstract void write(DataOutput out) throws IOException;
+
+    /**
+     * Formats the parameters as a single line of text.
+     */
+    public abstract String format();
+
+    @Override
+    public String toString() {
+        return format();
+    }
+
+    /**
+     * Reads parameters previously written in binary.
+     * <p>
+     * An exception will be thrown if the input is not a known model.
+     */
+    public static ModelParams read(DataInput in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case CONSTANT:
+                return ConstantParams.readBody(in);
+            case ALATON:
+                return AlatonParams.readBody(in);
+            default:
+                throw new IllegalArgumentException("Unknown model type: " + type);
+        }
+    }
+
+    /**
+     * Parses parameters previously formatted as text.
+     * <p>
+     * An exception will be thrown if the text is not a known model.
+     */
+    public static ModelParams parse(String s) {
+        String[] fields = s.trim().split("\\s+");
+        try {
+            switch (fields[0]) {
+                case ConstantParams.NAME:
+                    return ConstantParams.parseFields(fields);
+                case AlatonParams.NAME:
+                    return AlatonParams.parseFields(fields);
+                default:
+                    throw new IllegalArgumentException("Unknown model type: " + fields[0]);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Error parsing model: " + s, e);
+        }
+    }
+
+    static void expectFields(String[] fields, int count) {
+        if (fields.length != count) {
+            throw new IllegalArgumentException("Expected " + count + " fields, got " + fields.length);
+        }
+    }
+
+    static void writeUnits(DataOutput out, TempUnits units) throws IOException {
+        out.writeUTF(units.name());
+    }
+
+    static TempUnits readUnits(DataInput in) throws IOException {
+        return TempUnits.valueOf(in.readUTF());
+    }
+}
@@ -0,0 +1,68 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
+
+import java.time.Month;
+import java.util.Objects;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class MonthlySigmas implements SigmaSchedule {
+    private final double[] sigmas;
+    private final TempUnits units;
+
+    public MonthlySigmas(double[] sigmas, TempUnits units) {
+        this.units = Objects.requireNonNull(units);
+        if (sigmas.length != 12) {
+            throw new IllegalArgumentException("Invalid number of sigmas: " + sigmas.length);
+        }
+        this.sigmas = check(sigmas.clone());
+    }
+
+    /**
+     * The volatility on each day of the supplied range.
+     * <p>
+     * An exception will be thrown if the range includes a month with no
+     * volatility.
+     */
+    @Override
+    public double[] over(DateRange range, TempUnits units) {
+        double scale = units.convertDifference(1, this.units);
+        double[] result = new double[range.size()];
+        for (int i = 0; i < result.length; i++) {
+            int month = range.get(i).getMonthValue() - 1;
+            if (Double.isNaN(sigmas[month])) {
+                throw new IllegalArgumentException("No sigma for " + Month.of(month + 1));
+            }
+            result[i] = sigmas[month] * scale;
+        }
+        return result;
+    }
+
+    /**
+     * The volatility of each month, converted to the supplied units.
+     */
+    double[] sigmas(TempUnits units) {
+        double scale = units.convertDifference(1, this.units);
+        double[] result = new double[sigmas.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = sigmas[i] * scale;
+        }
+        return result;
+    }
+
+    /**
+     * Checks that each month's volatility is either non-negative and finite,
+     * or NaN (for a month with no estimate).
+     */
+    static double[] check(double[] sigmas) {
+        for (int i = 0; i < sigmas.length; i++) {
+            if (Double.isInfinite(sigmas[i]) || sigmas[i] < 0) {
+                throw new IllegalArgumentException(String.format("Invalid sigma for %s: %s", Month.of(i + 1), sigmas[i]));
+            }
+        }
+        return sigmas;
+    }
+}
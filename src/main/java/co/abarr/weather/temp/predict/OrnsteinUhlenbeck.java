@@ -1,13 +1,22 @@
 package co.abarr.weather.temp.predict;
 
+import co.abarr.weather.math.Normal;
 import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempBag;
+import co.abarr.weather.temp.TempDistribution;
+import co.abarr.weather.temp.TempIndexer;
 import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempUnits;
 import co.abarr.weather.time.DateRange;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Random;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
 
 /**
  * Generates Ornstein-Uhlenbeck paths based on some underlying predictor.
@@ -18,41 +27,362 @@ import java.util.function.Function;
  * Created by adam on 04/12/2020.
  */
 public class OrnsteinUhlenbeck implements TempPredictor {
+    private static final int HERMITE_TERMS = 8;
+    private static final double ALPHA_BUMP = 0.01;
+    private static final double SIGMA_BUMP = 0.01;
+    private static final double SHIFT_BUMP = 1;
     private final TempPredictor delegate;
     private final double alpha;
-    private final Function<LocalDate, Temp> sigma;
+    private final SigmaSchedule sigma;
     private final Random random;
+    private final int blockSize;
+    private volatile Sigmas sigmas;
 
-    private OrnsteinUhlenbeck(TempPredictor delegate, double alpha, Function<LocalDate, Temp> sigma, Random random) {
+    private OrnsteinUhlenbeck(TempPredictor delegate, double alpha, SigmaSchedule sigma, Random random, int blockSize) {
         this.delegate = Objects.requireNonNull(delegate);
         this.alpha = alpha;
         this.sigma = Objects.requireNonNull(sigma);
         this.random = Objects.requireNonNull(random);
+        this.blockSize = blockSize;
         if (Double.isNaN(alpha) || alpha < 0 || alpha > 1) {
             throw new IllegalArgumentException("Invalid alpha: " + alpha);
         }
+        if (blockSize < 0) {
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        }
     }
 
     /**
      * Predicts a path over the supplied date range.
      * <p>
      * This method will generate a random Ornstein-Uhlenbeck path that mean-
-     * reverts to the path produced by the underlying predictor.
+     * reverts to the path produced by the underlying predictor. Paths longer
+     * than the block size (if set) are generated in parallel.
      */
     @Override
     public TempSeries predict(DateRange range) {
-        TempSeries mean = delegate.predict(range.offsetStart(-1));
-        double[] path = new double[mean.size()];
-        path[0] = mean.get(0).temp().doubleValue();
+        MeanPath mean = mean(range.offsetStart(-1));
+        double[] sigmas = sigmas(mean);
+        double[] path;
+        if (blockSize > 0 && sigmas.length > blockSize) {
+            path = parallelPath(mean, sigmas);
+        } else {
+            double[] normals = new double[sigmas.length];
+            for (int i = 0; i < normals.length; i++) {
+                normals[i] = random.nextGaussian();
+            }
+            path = path(mean, alpha, sigmas, 1, 0, normals);
+        }
+        return TempSeries.of(range, (int i) -> Temp.of(path[i + 1], mean.units));
+    }
+
+    /**
+     * Predicts a path over the supplied date range from the supplied standard
+     * normal draws, one per day.
+     */
+    TempSeries predict(DateRange range, double[] normals) {
+        MeanPath mean = mean(range.offsetStart(-1));
+        double[] path = path(mean, alpha, sigmas(mean), 1, 0, normals);
+        return TempSeries.of(range, (int i) -> Temp.of(path[i + 1], mean.units));
+    }
+
+    /**
+     * The standardised shock implied by each observation, given the previous
+     * day's observation.
+     * <p>
+     * The shock is NaN for observations with no observation the day before,
+     * or where the sigma is zero.
+     */
+    double[] shocks(TempSeries observed) {
+        double[] shocks = new double[observed.size()];
+        Arrays.fill(shocks, Double.NaN);
+        if (observed.size() >= 2) {
+            LocalDate first = observed.dateAt(0);
+            MeanPath mean = mean(DateRange.of(first, observed.dateAt(observed.size() - 1).plusDays(1)));
+            double[] sigmas = sigma.over(mean.dates, mean.units);
+            TempSeries temps = observed.to(mean.units);
+            for (int i = 1; i < temps.size(); i++) {
+                LocalDate previous = temps.dateAt(i - 1);
+                if (temps.dateAt(i).equals(previous.plusDays(1))) {
+                    int j = (int) (previous.toEpochDay() - first.toEpochDay());
+                    double expected = temps.valueAt(i - 1) + alpha * (mean.values[j] - temps.valueAt(i - 1));
+                    if (sigmas[j] > 0) {
+                        shocks[i] = (temps.valueAt(i) - expected) / sigmas[j];
+                    }
+                }
+            }
+        }
+        return shocks;
+    }
+
+    /**
+     * Sets up a simulation of a fixed number of paths of an index, which can
+     * be split into shards and run in separate processes.
+     * <p>
+     * See {@link ShardedSimulation}.
+     */
+    public ShardedSimulation sharded(DateRange range, TempIndexer indexer, int paths) {
+        return ShardedSimulation.of(this, range, indexer, paths);
+    }
+
+    /**
+     * Sensitivities of the distribution of an index to the parameters of the
+     * model.
+     * <p>
+     * The base and bumped distributions are all generated from the same
+     * random numbers (common random numbers), so differences between them
+     * reflect the bumps rather than simulation noise. Alpha is bumped by
+     * 0.01 either way (within [0, 1]), sigma is scaled by 1% either way and
+     * the mean is shifted by one degree either way.
+     * <p>
+     * An exception will be thrown if the number of paths is less than one.
+     */
+    public Sensitivities sensitivities(DateRange range, TempIndexer indexer, int paths) {
+        if (paths < 1) {
+            throw new IllegalArgumentException("Invalid paths: " + paths);
+        }
+        MeanPath mean = mean(range.offsetStart(-1));
+        double[] sigmas = sigmas(mean);
+        double alphaUp = Math.min(alpha + ALPHA_BUMP, 1);
+        double alphaDown = Math.max(alpha - ALPHA_BUMP, 0);
+        double[][] scenarios = {
+            {alpha, 1, 0},
+            {alphaUp, 1, 0},
+            {alphaDown, 1, 0},
+            {alpha, 1 + SIGMA_BUMP, 0},
+            {alpha, 1 - SIGMA_BUMP, 0},
+            {alpha, 1, SHIFT_BUMP},
+            {alpha, 1, -SHIFT_BUMP},
+        };
+        TempBag.Builder[] builders = new TempBag.Builder[scenarios.length];
+        double[] normals = new double[sigmas.length];
+        for (int p = 0; p < paths; p++) {
+            for (int i = 0; i < normals.length; i++) {
+                normals[i] = random.nextGaussian();
+            }
+            for (int j = 0; j < scenarios.length; j++) {
+                double[] path = path(mean, scenarios[j][0], sigmas, scenarios[j][1], scenarios[j][2], normals);
+                Temp index = TempSeries.of(range, (int i) -> Temp.of(path[i + 1], mean.units)).apply(indexer);
+                if (builders[j] == null) {
+                    builders[j] = TempBag.builder(index.units(), paths);
+                }
+                builders[j].add(index);
+            }
+        }
+        TempBag[] bags = new TempBag[builders.length];
+        for (int j = 0; j < bags.length; j++) {
+            bags[j] = builders[j].build();
+        }
+        return new Sensitivities(bags, alphaUp - alphaDown, mean.units);
+    }
+
+    /**
+     * The underlying prediction over the supplied date range.
+     * <p>
+     * A seasonal mean is evaluated directly (and cached), avoiding the
+     * creation of a series.
+     */
+    private MeanPath mean(DateRange range) {
+        if (delegate instanceof SeasonalMean) {
+            SeasonalMean seasonal = (SeasonalMean) delegate;
+            return new MeanPath(range, seasonal.meansOver(range), seasonal.units());
+        } else {
+            TempSeries series = delegate.predict(range);
+            double[] values = new double[series.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = series.get(i).temp().doubleValue();
+            }
+            return new MeanPath(range, values, series.units());
+        }
+    }
+
+    /**
+     * The sigma to apply on each step of a path, in the units of the mean.
+     * <p>
+     * The sigmas for the most recent range are kept, since the same range is
+     * usually requested for every path of a simulation. The result is shared
+     * and must not be modified.
+     */
+    private double[] sigmas(MeanPath mean) {
+        Sigmas sigmas = this.sigmas;
+        if (sigmas == null || !sigmas.matches(mean)) {
+            double[] values = sigma.over(mean.dates, mean.units);
+            sigmas = new Sigmas(mean, Arrays.copyOf(values, Math.max(values.length - 1, 0)));
+            this.sigmas = sigmas;
+        }
+        return sigmas.values;
+    }
+
+    /**
+     * Generates a path from the supplied standard normal draws, one per step.
+     * <p>
+     * The sigmas are scaled, and the mean shifted, by the supplied amounts.
+     */
+    private static double[] path(MeanPath mean, double alpha, double[] sigmas, double scale, double shift, double[] normals) {
+        double[] path = new double[mean.values.length];
+        path[0] = mean.values[0] + shift;
         for (int i = 1; i < path.length; i++) {
-            TempSeries.Entry entry = mean.get(i - 1);
-            double sigma = this.sigma.apply(entry.date()).toUnitsOf(mean).doubleValue();
-            double noise = sigma * random.nextGaussian();
+            double noise = scale * sigmas[i - 1] * normals[i - 1];
             double previous = path[i - 1];
-            double previousResidual = entry.temp().doubleValue() - previous;
+            double previousResidual = mean.values[i - 1] + shift - previous;
             path[i] = previous + alpha * previousResidual + noise;
         }
-        return TempSeries.of(range, (int i) -> Temp.of(path[i + 1], mean.units()));
+        return path;
+    }
+
+    /**
+     * Generates a path in parallel blocks.
+     * <p>
+     * The path is the zero-noise path plus an AR(1) noise process, and the
+     * transition of the noise over a whole block is normal with known
+     * variance. So the noise at the end of each block is drawn first, in
+     * sequence, and then each block is filled in independently, conditioned
+     * on the noise at its start and end. The result has the same
+     * distribution as a path generated day by day.
+     */
+    private double[] parallelPath(MeanPath mean, double[] sigmas) {
+        double decay = 1 - alpha;
+        double[] path = path(mean, alpha, sigmas, 0, 0, new double[sigmas.length]);
+        int blocks = (sigmas.length + blockSize - 1) / blockSize;
+        double[] ends = new double[blocks + 1];
+        long[] seeds = new long[blocks];
+        for (int b = 0; b < blocks; b++) {
+            int from = b * blockSize;
+            int to = Math.min(from + blockSize, sigmas.length);
+            double variance = 0;
+            for (int i = from; i < to; i++) {
+                variance = decay * decay * variance + sigmas[i] * sigmas[i];
+            }
+            ends[b + 1] = Math.pow(decay, to - from) * ends[b] + Math.sqrt(variance) * random.nextGaussian();
+            seeds[b] = random.nextLong();
+        }
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            int from = b * blockSize;
+            int to = Math.min(from + blockSize, sigmas.length);
+            fill(path, sigmas, decay, from, to, ends[b], ends[b + 1], new Random(seeds[b]));
+        });
+        return path;
+    }
+
+    /**
+     * Adds noise to a block of a path, given the noise at either end.
+     * <p>
+     * An unconditioned noise path is generated from zero, and then corrected
+     * by its regression on the end point so it hits the supplied end.
+     */
+    private static void fill(double[] path, double[] sigmas, double decay, int from, int to, double start, double end, Random random) {
+        int k = to - from;
+        double[] noise = new double[k + 1];
+        double[] variances = new double[k + 1];
+        double[] powers = new double[k + 1];
+        powers[0] = 1;
+        for (int l = 1; l <= k; l++) {
+            double sigma = sigmas[from + l - 1];
+            noise[l] = decay * noise[l - 1] + sigma * random.nextGaussian();
+            variances[l] = decay * decay * variances[l - 1] + sigma * sigma;
+            powers[l] = decay * powers[l - 1];
+        }
+        double gap = end - powers[k] * start - noise[k];
+        for (int l = 1; l <= k; l++) {
+            double weight = variances[k] == 0 ? 0 : powers[k - l] * variances[l] / variances[k];
+            path[from + l] += powers[l] * start + noise[l] + weight * gap;
+        }
+    }
+
+    /**
+     * The distribution of the HDD index over the supplied date range.
+     * <p>
+     * Every day on the path is normally distributed, so the expected index is
+     * calculated exactly, as is the variance of each day's contribution. The
+     * covariance between days uses the first few terms of the Hermite (Mehler)
+     * expansion of the bivariate normal, and the index is then assumed to be
+     * normal. Use {@link #simulate} for a Monte Carlo estimate instead.
+     */
+    public TempDistribution hdd(DateRange range, Temp reference) {
+        MeanPath mean = mean(range.offsetStart(-1));
+        double k = reference.to(mean.units).doubleValue();
+        double decay = 1 - alpha;
+        double m = mean.values[0];
+        double[] sigmas = sigmas(mean);
+        double v = 0;
+        double[] coefficients = new double[HERMITE_TERMS + 1];
+        double[] covariances = new double[HERMITE_TERMS + 1];
+        double expected = 0;
+        double variance = 0;
+        for (int i = 1; i < mean.values.length; i++) {
+            double sigma = sigmas[i - 1];
+            double sd = Math.sqrt(v);
+            for (int n = 1; n <= HERMITE_TERMS; n++) {
+                covariances[n] = Math.pow(decay, n) * (covariances[n] + Math.pow(sd, n) * coefficients[n]);
+            }
+            m += alpha * (mean.values[i - 1] - m);
+            v = decay * decay * v + sigma * sigma;
+            sd = Math.sqrt(v);
+            double e;
+            double e2;
+            if (v == 0) {
+                e = Math.max(k - m, 0);
+                e2 = e * e;
+                Arrays.fill(coefficients, 0);
+            } else {
+                double d = (k - m) / sd;
+                double p = Normal.cdf(d);
+                double pdf = Normal.pdf(d);
+                e = (k - m) * p + sd * pdf;
+                e2 = ((k - m) * (k - m) + v) * p + (k - m) * sd * pdf;
+                hermiteCoefficients(d, p, pdf, sd, coefficients);
+            }
+            expected += e;
+            variance += e2 - e * e;
+            double factorial = 1;
+            for (int n = 1; n <= HERMITE_TERMS; n++) {
+                factorial *= n;
+                if (sd > 0) {
+                    variance += 2 * covariances[n] * coefficients[n] / Math.pow(sd, n) / factorial;
+                }
+            }
+        }
+        return TempDistribution.normal(
+            Temp.of(reference.units().convertDifference(expected, mean.units), reference.units()),
+            Temp.of(reference.units().convertDifference(Math.sqrt(Math.max(0, variance)), mean.units), reference.units())
+        );
+    }
+
+    /**
+     * Hermite coefficients of max(k - x, 0) for normal x, ie the expectation of
+     * its nth derivative with respect to the standardised variable.
+     */
+    private static void hermiteCoefficients(double d, double p, double pdf, double sd, double[] coefficients) {
+        coefficients[1] = -sd * p;
+        double he0 = 1;
+        double he1 = d;
+        for (int n = 2; n < coefficients.length; n++) {
+            coefficients[n] = sd * pdf * he0;
+            double he2 = d * he1 - (n - 1) * he0;
+            he0 = he1;
+            he1 = he2;
+        }
+    }
+
+    /**
+     * The parameters of this predictor, if it is an Alaton model, ie it
+     * reverts to a seasonal mean with monthly volatilities.
+     */
+    @Override
+    public Optional<ModelParams> params() {
+        if (delegate instanceof SeasonalMean && sigma instanceof MonthlySigmas) {
+            SeasonalMean mean = (SeasonalMean) delegate;
+            return Optional.of(AlatonParams.of(mean, alpha, ((MonthlySigmas) sigma).sigmas(mean.units())));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The mean reversion per day.
+     */
+    public double alpha() {
+        return alpha;
     }
 
     /**
@@ -61,7 +391,7 @@ public class OrnsteinUhlenbeck implements TempPredictor {
      * An exception will be thrown if alpha is outside of the range [0, 1].
      */
     public OrnsteinUhlenbeck alpha(double alpha) {
-        return new OrnsteinUhlenbeck(delegate, alpha, sigma, random);
+        return new OrnsteinUhlenbeck(delegate, alpha, sigma, random, blockSize);
     }
 
     /**
@@ -70,7 +400,7 @@ public class OrnsteinUhlenbeck implements TempPredictor {
      * An exception will be thrown if the sigma is null.
      */
     public OrnsteinUhlenbeck sigma(Temp sigma) {
-        return sigma(date -> sigma);
+        return sigma(SigmaSchedule.constant(sigma));
     }
 
     /**
@@ -79,14 +409,47 @@ public class OrnsteinUhlenbeck implements TempPredictor {
      * An exception will be thrown if the function is null.
      */
     public OrnsteinUhlenbeck sigma(Function<LocalDate, Temp> sigma) {
-        return new OrnsteinUhlenbeck(delegate, alpha, sigma, random);
+        return sigma(SigmaSchedule.of(sigma));
+    }
+
+    /**
+     * Updates the (precomputed) sigma schedule.
+     * <p>
+     * An exception will be thrown if the schedule is null.
+     */
+    public OrnsteinUhlenbeck sigma(SigmaSchedule sigma) {
+        return new OrnsteinUhlenbeck(delegate, alpha, sigma, random, blockSize);
     }
 
     /**
      * Updates the random number generator.
      */
     public OrnsteinUhlenbeck random(Random random) {
-        return new OrnsteinUhlenbeck(delegate, alpha, sigma, random);
+        return new OrnsteinUhlenbeck(delegate, alpha, sigma, random, blockSize);
+    }
+
+    /**
+     * A copy of this predictor with its own random number generator, seeded
+     * from this one.
+     */
+    @Override
+    public OrnsteinUhlenbeck split() {
+        OrnsteinUhlenbeck split = new OrnsteinUhlenbeck(delegate, alpha, sigma, new Random(random.nextLong()), blockSize);
+        split.sigmas = sigmas;
+        return split;
+    }
+
+    /**
+     * Updates the number of days in each block of a path generated in
+     * parallel.
+     * <p>
+     * Paths longer than one block are split into blocks that are generated
+     * in parallel, which is worthwhile for long (multi-year) paths. Zero (the
+     * default) generates every path sequentially. An exception will be
+     * thrown if the size is negative.
+     */
+    public OrnsteinUhlenbeck blockSize(int blockSize) {
+        return new OrnsteinUhlenbeck(delegate, alpha, sigma, random, blockSize);
     }
 
     /**
@@ -95,6 +458,130 @@ public class OrnsteinUhlenbeck implements TempPredictor {
      * By default the random path will simply follow the underlying prediction.
      */
     public static OrnsteinUhlenbeck on(TempPredictor delegate) {
-        return new OrnsteinUhlenbeck(delegate, 1.0, date -> Temp.kelvin(0), new Random());
+        return new OrnsteinUhlenbeck(delegate, 1.0, SigmaSchedule.constant(Temp.kelvin(0)), new Random(), 0);
+    }
+
+    /**
+     * The base and bumped distributions of an index, from which sensitivities
+     * of any price of the index can be calculated.
+     */
+    public static final class Sensitivities {
+        private final TempBag[] bags;
+        private final double alphaBump;
+        private final TempUnits units;
+
+        private Sensitivities(TempBag[] bags, double alphaBump, TempUnits units) {
+            this.bags = bags;
+            this.alphaBump = alphaBump;
+            this.units = units;
+        }
+
+        /**
+         * The distribution of the index with unbumped parameters.
+         */
+        public TempBag base() {
+            return bags[0];
+        }
+
+        /**
+         * The sensitivity of the expected index to alpha.
+         */
+        public double alpha() {
+            return alpha(Sensitivities::mean);
+        }
+
+        /**
+         * The sensitivity of some price to alpha.
+         */
+        public double alpha(ToDoubleFunction<TempDistribution> price) {
+            return difference(price, 1, alphaBump);
+        }
+
+        /**
+         * The sensitivity of the expected index to a proportional change in
+         * sigma, ie per 100% change.
+         */
+        public double sigma() {
+            return sigma(Sensitivities::mean);
+        }
+
+        /**
+         * The sensitivity of some price to a proportional change in sigma, ie
+         * per 100% change.
+         */
+        public double sigma(ToDoubleFunction<TempDistribution> price) {
+            return difference(price, 3, 2 * SIGMA_BUMP);
+        }
+
+        /**
+         * The sensitivity of the expected index to a parallel shift in the
+         * mean, per degree (in the units of the underlying prediction).
+         */
+        public double shift() {
+            return shift(Sensitivities::mean);
+        }
+
+        /**
+         * The sensitivity of some price to a parallel shift in the mean, per
+         * degree (in the units of the underlying prediction).
+         */
+        public double shift(ToDoubleFunction<TempDistribution> price) {
+            return difference(price, 5, 2 * SHIFT_BUMP);
+        }
+
+        /**
+         * The units of the underlying prediction, in which mean shifts are
+         * measured.
+         */
+        public TempUnits units() {
+            return units;
+        }
+
+        private double difference(ToDoubleFunction<TempDistribution> price, int up, double bump) {
+            if (bump == 0) {
+                return 0;
+            } else {
+                return (price.applyAsDouble(bags[up]) - price.applyAsDouble(bags[up + 1])) / bump;
+            }
+        }
+
+        private static double mean(TempDistribution distribution) {
+            return distribution.mean().orElseThrow().doubleValue();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Sensitivities[alpha=%s, sigma=%s, shift=%s]", alpha(), sigma(), shift());
+        }
+    }
+
+    private static final class MeanPath {
+        private final DateRange dates;
+        private final double[] values;
+        private final TempUnits units;
+
+        private MeanPath(DateRange dates, double[] values, TempUnits units) {
+            this.dates = dates;
+            this.values = values;
+            this.units = units;
+        }
+    }
+
+    private static final class Sigmas {
+        private final LocalDate start;
+        private final int size;
+        private final TempUnits units;
+        private final double[] values;
+
+        private Sigmas(MeanPath mean, double[] values) {
+            this.start = mean.dates.start();
+            this.size = mean.values.length;
+            this.units = mean.units;
+            this.values = values;
+        }
+
+        private boolean matches(MeanPath mean) {
+            return size == mean.values.length && units == mean.units && start.equals(mean.dates.start());
+        }
     }
 }
@@ -0,0 +1,263 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.MultiIndexer;
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempBag;
+import co.abarr.weather.temp.TempIndexer;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Simulated paths kept in a memory-mapped file, so the exact same scenarios
+ * can be re-evaluated later (eg against new indices) without re-simulating.
+ * <p>
+ * The file has a small header (the date range, units, seed and number of
+ * paths) followed by the temperatures of each path in turn, as contiguous
+ * doubles. Files are mapped in chunks of whole paths, and read straight
+ * from the mapping without any parsing.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class PathStore implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(PathStore.class);
+    private static final int MAGIC = 0x57505354;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final DateRange range;
+    private final TempUnits units;
+    private final long seed;
+    private final int paths;
+    private final int pathsPerChunk;
+    private final List<DoubleBuffer> chunks;
+
+    private PathStore(FileChannel channel, DateRange range, TempUnits units, long seed, int paths, List<DoubleBuffer> chunks) {
+        this.channel = channel;
+        this.range = range;
+        this.units = units;
+        this.seed = seed;
+        this.paths = paths;
+        this.pathsPerChunk = pathsPerChunk(range.size());
+        this.chunks = chunks;
+    }
+
+    /**
+     * The simulated date range.
+     */
+    public DateRange range() {
+        return range;
+    }
+
+    /**
+     * The units of the stored temperatures.
+     */
+    public TempUnits units() {
+        return units;
+    }
+
+    /**
+     * The seed the paths were simulated from.
+     */
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * The number of stored paths.
+     */
+    public int paths() {
+        return paths;
+    }
+
+    /**
+     * A stored path.
+     * <p>
+     * An exception will be thrown if the index is out of range.
+     */
+    public TempSeries path(int index) {
+        if (index < 0 || index >= paths) {
+            throw new IndexOutOfBoundsException("Invalid path: " + index);
+        }
+        DoubleBuffer chunk = chunks.get(index / pathsPerChunk);
+        int offset = (index % pathsPerChunk) * range.size();
+        return TempSeries.of(range, (int i) -> Temp.of(chunk.get(offset + i), units));
+    }
+
+    /**
+     * The distribution of an index over all stored paths.
+     */
+    public TempBag apply(TempIndexer indexer) {
+        TempBag.Builder builder = null;
+        for (int p = 0; p < paths; p++) {
+            Temp index = path(p).apply(indexer);
+            if (builder == null) {
+                builder = TempBag.builder(index.units(), paths);
+            }
+            builder.add(index);
+        }
+        return builder == null ? TempBag.empty() : builder.build();
+    }
+
+    /**
+     * The distribution of each of several indices over all stored paths,
+     * evaluated in a single pass over each path.
+     */
+    public List<TempBag> apply(MultiIndexer indexer) {
+        List<TempBag.Builder> builders = new ArrayList<>();
+        for (int p = 0; p < paths; p++) {
+            List<Temp> indices = path(p).apply(indexer);
+            for (int j = 0; j < indices.size(); j++) {
+                if (builders.size() == j) {
+                    builders.add(TempBag.builder(indices.get(j).units(), paths));
+                }
+                builders.get(j).add(indices.get(j));
+            }
+        }
+        List<TempBag> bags = new ArrayList<>();
+        for (TempBag.Builder builder : builders) {
+            bags.add(builder.build());
+        }
+        return bags;
+    }
+
+    /**
+     * Closes the underlying file.
+     * <p>
+     * The store must not be used once closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PathStore[range=%s, units=%s, seed=%s, paths=%s]", range, units, seed, paths);
+    }
+
+    /**
+     * Simulates paths from a seed, and writes them to a new file (replacing
+     * any existing one).
+     * <p>
+     * The returned store is open on the file, and should be closed once done
+     * with. An exception will be thrown if the number of paths is less than
+     * one.
+     */
+    public static PathStore write(Path file, OrnsteinUhlenbeck predictor, DateRange range, int paths, long seed) throws IOException {
+        if (paths < 1) {
+            throw new IllegalArgumentException("Invalid paths: " + paths);
+        }
+        long t0 = System.currentTimeMillis();
+        OrnsteinUhlenbeck seeded = predictor.random(new Random(seed));
+        TempSeries first = seeded.predict(range);
+        TempUnits units = first.units();
+        FileChannel channel = FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        );
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putLong(range.start().toEpochDay());
+            header.putInt(range.size());
+            header.putInt(paths);
+            header.putLong(seed);
+            byte[] name = units.name().getBytes(StandardCharsets.UTF_8);
+            header.putShort((short) name.length);
+            header.put(name);
+            header.flip();
+            channel.write(header, 0);
+            List<DoubleBuffer> chunks = map(channel, FileChannel.MapMode.READ_WRITE, range.size(), paths);
+            int pathsPerChunk = pathsPerChunk(range.size());
+            for (int p = 0; p < paths; p++) {
+                TempSeries path = p == 0 ? first : seeded.predict(range).to(units);
+                DoubleBuffer chunk = chunks.get(p / pathsPerChunk);
+                int offset = (p % pathsPerChunk) * range.size();
+                for (int i = 0; i < path.size(); i++) {
+                    chunk.put(offset + i, path.valueAt(i));
+                }
+            }
+            channel.force(false);
+            logger.info("Took {}ms to write {} paths to {}", System.currentTimeMillis() - t0, paths, file);
+            return new PathStore(channel, range, units, seed, paths, chunks);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a file of previously written paths, read-only.
+     * <p>
+     * The returned store should be closed once done with. An exception will
+     * be thrown if the file is not a path store.
+     */
+    public static PathStore open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a path store: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported path store version: " + version);
+            }
+            LocalDate start = LocalDate.ofEpochDay(header.getLong());
+            int days = header.getInt();
+            int paths = header.getInt();
+            long seed = header.getLong();
+            byte[] name = new byte[header.getShort()];
+            header.get(name);
+            TempUnits units = TempUnits.valueOf(new String(name, StandardCharsets.UTF_8));
+            DateRange range = DateRange.of(start, start.plusDays(days));
+            List<DoubleBuffer> chunks = map(channel, FileChannel.MapMode.READ_ONLY, days, paths);
+            return new PathStore(channel, range, units, seed, paths, chunks);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static List<DoubleBuffer> map(FileChannel channel, FileChannel.MapMode mode, int days, int paths) throws IOException {
+        List<DoubleBuffer> chunks = new ArrayList<>();
+        int pathsPerChunk = pathsPerChunk(days);
+        long position = HEADER_SIZE;
+        for (int p = 0; p < paths; p += pathsPerChunk) {
+            long size = (long) Math.min(pathsPerChunk, paths - p) * days * Double.BYTES;
+            MappedByteBuffer buffer = channel.map(mode, position, size);
+            chunks.add(buffer.asDoubleBuffer());
+            position += size;
+        }
+        return chunks;
+    }
+
+    private static int pathsPerChunk(int days) {
+        return (int) Math.max(1, MAX_CHUNK_SIZE / Math.max(1, (long) days * Double.BYTES));
+    }
+}
@@ -0,0 +1,174 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.MultiIndexer;
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempBag;
+import co.abarr.weather.temp.TempIndexer;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.time.DateRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Prices a book of index contracts on shared simulated paths.
+ * <p>
+ * Each path is simulated once per station, over the union of the periods of
+ * all contracts on that station, and every contract is evaluated on the same
+ * path. Contracts over the same period share a single pass over the path. As
+ * well as being cheaper than simulating each contract separately, this makes
+ * the results for different contracts on a station consistent with each
+ * other (common random numbers).
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class Portfolio<C, S> {
+    private static final Logger logger = LoggerFactory.getLogger(Portfolio.class);
+
+    private final Map<C, Contract<S>> contracts;
+
+    private Portfolio(Map<C, Contract<S>> contracts) {
+        this.contracts = contracts;
+    }
+
+    /**
+     * Adds a contract on an index of a station's temperature over some
+     * period.
+     * <p>
+     * An exception will be thrown if the portfolio already contains the
+     * contract.
+     */
+    public Portfolio<C, S> with(C contract, S station, DateRange range, TempIndexer indexer) {
+        if (contracts.containsKey(Objects.requireNonNull(contract))) {
+            throw new IllegalArgumentException("Duplicate contract: " + contract);
+        } else {
+            Map<C, Contract<S>> contracts = new LinkedHashMap<>(this.contracts);
+            contracts.put(contract, new Contract<>(station, range, indexer));
+            return new Portfolio<>(contracts);
+        }
+    }
+
+    /**
+     * The contracts in the portfolio, in the order they were added.
+     */
+    public Set<C> contracts() {
+        return Collections.unmodifiableSet(contracts.keySet());
+    }
+
+    /**
+     * The stations in the portfolio.
+     */
+    public Set<S> stations() {
+        Set<S> stations = new LinkedHashSet<>();
+        for (Contract<S> contract : contracts.values()) {
+            stations.add(contract.station);
+        }
+        return stations;
+    }
+
+    /**
+     * The period that must be simulated for a station, ie the union of the
+     * periods of all contracts on it.
+     * <p>
+     * An exception will be thrown if there are no contracts on the station.
+     */
+    public DateRange rangeFor(S station) {
+        LocalDate start = null;
+        LocalDate end = null;
+        for (Contract<S> contract : contracts.values()) {
+            if (contract.station.equals(station)) {
+                if (start == null || contract.range.start().isBefore(start)) {
+                    start = contract.range.start();
+                }
+                if (end == null || contract.range.end().isAfter(end)) {
+                    end = contract.range.end();
+                }
+            }
+        }
+        if (start == null) {
+            throw new IllegalArgumentException("No contracts on station: " + station);
+        } else {
+            return DateRange.of(start, end);
+        }
+    }
+
+    /**
+     * Estimates the distribution of the index of every contract.
+     * <p>
+     * An exception will be thrown if there is no predictor for a station in
+     * the portfolio, or the number of paths is less than one.
+     */
+    public Map<C, TempBag> simulate(Map<S, ? extends TempPredictor> predictors, int paths) {
+        if (paths < 1) {
+            throw new IllegalArgumentException("Invalid paths: " + paths);
+        }
+        long t0 = System.currentTimeMillis();
+        Map<C, TempBag.Builder> builders = new HashMap<>();
+        for (S station : stations()) {
+            TempPredictor predictor = predictors.get(station);
+            if (predictor == null) {
+                throw new IllegalArgumentException("No predictor for station: " + station);
+            }
+            DateRange union = rangeFor(station);
+            Map<DateRange, List<C>> byRange = new LinkedHashMap<>();
+            for (Map.Entry<C, Contract<S>> entry : contracts.entrySet()) {
+                if (entry.getValue().station.equals(station)) {
+                    byRange.computeIfAbsent(entry.getValue().range, range -> new ArrayList<>()).add(entry.getKey());
+                }
+            }
+            Map<DateRange, MultiIndexer> indexers = new LinkedHashMap<>();
+            for (Map.Entry<DateRange, List<C>> entry : byRange.entrySet()) {
+                List<TempIndexer> list = new ArrayList<>();
+                for (C contract : entry.getValue()) {
+                    list.add(contracts.get(contract).indexer);
+                }
+                indexers.put(entry.getKey(), MultiIndexer.of(list));
+            }
+            for (int i = 0; i < paths; i++) {
+                TempSeries path = predictor.predict(union);
+                for (Map.Entry<DateRange, List<C>> entry : byRange.entrySet()) {
+                    List<Temp> indices = path.subSeries(entry.getKey()).apply(indexers.get(entry.getKey()));
+                    for (int j = 0; j < indices.size(); j++) {
+                        Temp index = indices.get(j);
+                        builders.computeIfAbsent(
+                            entry.getValue().get(j),
+                            contract -> TempBag.builder(index.units(), paths)
+                        ).add(index);
+                    }
+                }
+            }
+        }
+        Map<C, TempBag> result = new LinkedHashMap<>();
+        for (C contract : contracts.keySet()) {
+            result.put(contract, builders.get(contract).build());
+        }
+        logger.info("Took {}ms to simulate {} contracts over {} paths", System.currentTimeMillis() - t0, result.size(), paths);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Portfolio[contracts=%s, stations=%s]", contracts.size(), stations().size());
+    }
+
+    /**
+     * An empty portfolio.
+     */
+    public static <C, S> Portfolio<C, S> empty() {
+        return new Portfolio<>(new LinkedHashMap<>());
+    }
+
+    private static final class Contract<S> {
+        private final S station;
+        private final DateRange range;
+        private final TempIndexer indexer;
+
+        private Contract(S station, DateRange range, TempIndexer indexer) {
+            this.station = Objects.requireNonNull(station);
+            this.range = Objects.requireNonNull(range);
+            this.indexer = Objects.requireNonNull(indexer);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The expected temperature model of the Alaton paper.
+ * <p>
+ * The expected temperature on day t (counting from an origin date) is
+ * A + B * t + C * sin(w * t + Theta), where w gives a 365-day period.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public final class SeasonalMean implements TempPredictor {
+    static final double W = 2 * Math.PI / 365.0;
+    private static final int PERIOD = 365;
+    private static final int MAX_CACHED_RANGES = 64;
+
+    private final LocalDate origin;
+    private final double a;
+    private final double b;
+    private final double c;
+    private final double theta;
+    private final TempUnits units;
+    private final long originDay;
+    private final double[] seasonal;
+    private final ConcurrentMap<RangeKey, double[]> cache = new ConcurrentHashMap<>();
+
+    private SeasonalMean(LocalDate origin, double a, double b, double c, double theta, TempUnits units) {
+        this.origin = Objects.requireNonNull(origin);
+        this.a = a;
+        this.b = b;
+        this.c = c;
+        this.theta = theta;
+        this.units = Objects.requireNonNull(units);
+        this.originDay = origin.toEpochDay();
+        //The seasonal term has a period of exactly 365 days, so only needs
+        //calculating once for each day of the cycle
+        this.seasonal = new double[PERIOD];
+        for (int i = 0; i < PERIOD; i++) {
+            seasonal[i] = c * Math.sin(W * i + theta);
+        }
+    }
+
+    /**
+     * Predicts the expected temperature over the supplied date range.
+     */
+    @Override
+    public TempSeries predict(DateRange range) {
+        double[] means = meansOver(range);
+        return TempSeries.of(range, (int i) -> Temp.of(means[i], units));
+    }
+
+    /**
+     * The expected temperature (in the units of the model) on some day.
+     */
+    public double meanAt(long epochDay) {
+        long t = epochDay - originDay + 1;
+        return a + b * t + seasonal[Math.floorMod(t, PERIOD)];
+    }
+
+    /**
+     * The expected temperatures (in the units of the model) over the supplied
+     * date range.
+     * <p>
+     * Recently requested ranges are cached (the cache is cleared whenever it
+     * fills up), so the result is shared and must not be modified. Lookups
+     * take no lock, and misses are calculated outside of the cache.
+     */
+    double[] meansOver(DateRange range) {
+        RangeKey key = new RangeKey(range.start().toEpochDay(), range.size());
+        double[] means = cache.get(key);
+        if (means == null) {
+            means = new double[key.size];
+            for (int i = 0; i < means.length; i++) {
+                means[i] = meanAt(key.start + i);
+            }
+            if (cache.size() >= MAX_CACHED_RANGES) {
+                cache.clear();
+            }
+            double[] existing = cache.putIfAbsent(key, means);
+            if (existing != null) {
+                means = existing;
+            }
+        }
+        return means;
+    }
+
+    /**
+     * The date on which t = 1.
+     */
+    public LocalDate origin() {
+        return origin;
+    }
+
+    /**
+     * The constant term (A).
+     */
+    public double a() {
+        return a;
+    }
+
+    /**
+     * The linear trend per day (B).
+     */
+    public double b() {
+        return b;
+    }
+
+    /**
+     * The amplitude of the seasonal cycle (C).
+     */
+    public double c() {
+        return c;
+    }
+
+    /**
+     * The phase of the seasonal cycle (Theta).
+     */
+    public double theta() {
+        return theta;
+    }
+
+    /**
+     * The units of the predicted temperatures.
+     */
+    public TempUnits units() {
+        return units;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SeasonalMean that = (SeasonalMean) o;
+        return Double.compare(that.a, a) == 0 &&
+            Double.compare(that.b, b) == 0 &&
+            Double.compare(that.c, c) == 0 &&
+            Double.compare(that.theta, theta) == 0 &&
+            origin.equals(that.origin) &&
+            units == that.units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(origin, a, b, c, theta, units);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("A=%s, B=%s, C=%s, Theta=%s [%s from %s]", a, b, c, theta, units, origin);
+    }
+
+    /**
+     * Creates a new model from the regression coefficients of
+     * [1, t, sin(w * t), cos(w * t)].
+     */
+    static SeasonalMean fromCoefficients(LocalDate origin, double[] coefficients, TempUnits units) {
+        double c = Math.sqrt(Math.pow(coefficients[2], 2) + Math.pow(coefficients[3], 2));
+        double theta = Math.atan(coefficients[3] / coefficients[2]) - Math.PI;
+        return of(origin, coefficients[0], coefficients[1], c, theta, units);
+    }
+
+    /**
+     * Creates a new model.
+     * <p>
+     * An exception will be thrown if the origin or units are null.
+     */
+    public static SeasonalMean of(LocalDate origin, double a, double b, double c, double theta, TempUnits units) {
+        return new SeasonalMean(origin, a, b, c, theta, units);
+    }
+
+    static int t(LocalDate origin, LocalDate date) {
+        return (int) (date.toEpochDay() - origin.toEpochDay()) + 1;
+    }
+
+    private static final class RangeKey {
+        private final long start;
+        private final int size;
+
+        private RangeKey(long start, int size) {
+            this.start = start;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RangeKey that = (RangeKey) o;
+            return start == that.start && size == that.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(start, size);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempBag;
+import co.abarr.weather.temp.TempIndexer;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * A Monte Carlo simulation of a fixed number of paths, which can be split
+ * into shards and run in separate processes.
+ * <p>
+ * Every path has its own random stream, seeded from the simulation seed and
+ * the index of the path, so a path is the same whichever shard (or thread)
+ * generates it. Each shard produces a {@link Partial} holding the index and
+ * payoff of each of its paths in order, which can be written to a file. The
+ * partials of all shards merge into exactly the result of running the whole
+ * simulation in one process.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class ShardedSimulation {
+    private static final Logger logger = LoggerFactory.getLogger(ShardedSimulation.class);
+    private static final int MAGIC = 0x57534854;
+    private static final int VERSION = 1;
+
+    private final OrnsteinUhlenbeck predictor;
+    private final DateRange range;
+    private final TempIndexer indexer;
+    private final ToDoubleFunction<Temp> payoff;
+    private final int paths;
+    private final long seed;
+
+    private ShardedSimulation(OrnsteinUhlenbeck predictor, DateRange range, TempIndexer indexer, ToDoubleFunction<Temp> payoff, int paths, long seed) {
+        this.predictor = Objects.requireNonNull(predictor);
+        this.range = Objects.requireNonNull(range);
+        this.indexer = Objects.requireNonNull(indexer);
+        this.payoff = Objects.requireNonNull(payoff);
+        this.paths = paths;
+        this.seed = seed;
+        if (paths < 1) {
+            throw new IllegalArgumentException("Invalid paths: " + paths);
+        }
+    }
+
+    /**
+     * Runs the whole simulation in this process.
+     */
+    public Result run() {
+        return merge(List.of(run(0, 1)));
+    }
+
+    /**
+     * Runs one of some number of shards of the simulation.
+     * <p>
+     * Shards are contiguous runs of paths, of (nearly) equal size. An
+     * exception will be thrown if the number of shards is less than one, or
+     * the shard is not in [0, shards).
+     */
+    public Partial run(int shard, int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Invalid shards: " + shards);
+        }
+        if (shard < 0 || shard >= shards) {
+            throw new IllegalArgumentException("Invalid shard: " + shard);
+        }
+        long t0 = System.currentTimeMillis();
+        int first = (int) ((long) paths * shard / shards);
+        int last = (int) ((long) paths * (shard + 1) / shards);
+        Temp[] indices = IntStream.range(first, last)
+            .parallel()
+            .mapToObj(this::index)
+            .toArray(Temp[]::new);
+        TempUnits units = indices.length == 0 ? null : indices[0].units();
+        double[] values = new double[indices.length];
+        double[] payoffs = new double[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            values[i] = indices[i].to(units).doubleValue();
+            payoffs[i] = payoff.applyAsDouble(indices[i]);
+        }
+        logger.info("Took {}ms to simulate shard {} of {} ({} paths)", System.currentTimeMillis() - t0, shard, shards, values.length);
+        return new Partial(range, units, seed, paths, shard, shards, values, payoffs);
+    }
+
+    private Temp index(int path) {
+        SplittableRandom seeds = new SplittableRandom(seed + path * 0x9E3779B97F4A7C15L);
+        Random random = new Random(seeds.nextLong());
+        double[] normals = new double[range.size()];
+        for (int i = 0; i < normals.length; i++) {
+            normals[i] = random.nextGaussian();
+        }
+        return predictor.predict(range, normals).apply(indexer);
+    }
+
+    /**
+     * Updates the payoff whose mean is estimated.
+     * <p>
+     * By default this is the index itself.
+     */
+    public ShardedSimulation payoff(ToDoubleFunction<Temp> payoff) {
+        return new ShardedSimulation(predictor, range, indexer, payoff, paths, seed);
+    }
+
+    /**
+     * Updates the seed from which the paths are generated.
+     * <p>
+     * Every shard of a simulation must use the same seed.
+     */
+    public ShardedSimulation seed(long seed) {
+        return new ShardedSimulation(predictor, range, indexer, payoff, paths, seed);
+    }
+
+    /**
+     * Creates a new simulation of some number of paths of an index over the
+     * supplied date range.
+     * <p>
+     * By default the seed is zero. An exception will be thrown if the number
+     * of paths is less than one.
+     */
+    public static ShardedSimulation of(OrnsteinUhlenbeck predictor, DateRange range, TempIndexer indexer, int paths) {
+        return new ShardedSimulation(predictor, range, indexer, Temp::doubleValue, paths, 0);
+    }
+
+    /**
+     * Merges the partial results of every shard of a simulation.
+     * <p>
+     * The partials may be supplied in any order. An exception will be thrown
+     * if they are not all from the same simulation, or any shard is missing
+     * or repeated.
+     */
+    public static Result merge(Collection<Partial> partials) {
+        if (partials.isEmpty()) {
+            throw new IllegalArgumentException("No partials to merge");
+        }
+        List<Partial> sorted = new ArrayList<>(partials);
+        sorted.sort(Comparator.comparingInt(Partial::shard));
+        Partial head = sorted.get(0);
+        if (sorted.size() != head.shards) {
+            throw new IllegalArgumentException(String.format("Expected %s shards, found %s", head.shards, sorted.size()));
+        }
+        TempUnits units = null;
+        int count = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            Partial partial = sorted.get(i);
+            if (partial.shard != i) {
+                throw new IllegalArgumentException("Missing shard: " + i);
+            }
+            if (!partial.range.equals(head.range) || partial.seed != head.seed || partial.paths != head.paths || partial.shards != head.shards) {
+                throw new IllegalArgumentException("Shard is from a different simulation: " + partial);
+            }
+            if (partial.units != null) {
+                if (units != null && units != partial.units) {
+                    throw new IllegalArgumentException("Shard is in different units: " + partial);
+                }
+                units = partial.units;
+            }
+            count += partial.size();
+        }
+        double[] indices = new double[count];
+        double sum = 0;
+        double sumOfSquares = 0;
+        int position = 0;
+        for (Partial partial : sorted) {
+            System.arraycopy(partial.indices, 0, indices, position, partial.size());
+            for (double value : partial.payoffs) {
+                sum += value;
+                sumOfSquares += value * value;
+            }
+            position += partial.size();
+        }
+        double mean = sum / count;
+        double error = count > 1 ? Math.sqrt(Math.max(0, sumOfSquares - sum * mean) / (count - 1) / count) : Double.POSITIVE_INFINITY;
+        return new Result(TempBag.of(indices, units), mean, error, count);
+    }
+
+    /**
+     * The paths simulated by a single shard.
+     */
+    public static final class Partial {
+        private final DateRange range;
+        private final TempUnits units;
+        private final long seed;
+        private final int paths;
+        private final int shard;
+        private final int shards;
+        private final double[] indices;
+        private final double[] payoffs;
+
+        private Partial(DateRange range, TempUnits units, long seed, int paths, int shard, int shards, double[] indices, double[] payoffs) {
+            this.range = range;
+            this.units = units;
+            this.seed = seed;
+            this.paths = paths;
+            this.shard = shard;
+            this.shards = shards;
+            this.indices = indices;
+            this.payoffs = payoffs;
+        }
+
+        /**
+         * The index of this shard.
+         */
+        public int shard() {
+            return shard;
+        }
+
+        /**
+         * The total number of shards.
+         */
+        public int shards() {
+            return shards;
+        }
+
+        /**
+         * The number of paths simulated by this shard.
+         */
+        public int size() {
+            return indices.length;
+        }
+
+        /**
+         * The sum of the payoffs of the paths simulated by this shard.
+         */
+        public double sum() {
+            double sum = 0;
+            for (double value : payoffs) {
+                sum += value;
+            }
+            return sum;
+        }
+
+        /**
+         * Writes this partial to a file (replacing any existing one).
+         */
+        public void write(Path file) throws IOException {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(range.start().toEpochDay());
+                out.writeInt(range.size());
+                out.writeUTF(units == null ? "" : units.name());
+                out.writeLong(seed);
+                out.writeInt(paths);
+                out.writeInt(shard);
+                out.writeInt(shards);
+                out.writeInt(indices.length);
+                for (int i = 0; i < indices.length; i++) {
+                    out.writeDouble(indices[i]);
+                    out.writeDouble(payoffs[i]);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Partial[shard=%s/%s, seed=%s, paths=%s, range=%s]", shard, shards, seed, indices.length, range);
+        }
+
+        /**
+         * Reads a partial previously written to a file.
+         * <p>
+         * An exception will be thrown if the file is not a partial.
+         */
+        public static Partial read(Path file) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC) {
+                    throw new IllegalArgumentException("Not a simulation partial: " + file);
+                }
+                int version = in.readInt();
+                if (version != VERSION) {
+                    throw new IllegalArgumentException("Unsupported partial version: " + version);
+                }
+                LocalDate start = LocalDate.ofEpochDay(in.readLong());
+                DateRange range = DateRange.of(start, start.plusDays(in.readInt()));
+                String name = in.readUTF();
+                TempUnits units = name.isEmpty() ? null : TempUnits.valueOf(name);
+                long seed = in.readLong();
+                int paths = in.readInt();
+                int shard = in.readInt();
+                int shards = in.readInt();
+                double[] indices = new double[in.readInt()];
+                double[] payoffs = new double[indices.length];
+                for (int i = 0; i < indices.length; i++) {
+                    indices[i] = in.readDouble();
+                    payoffs[i] = in.readDouble();
+                }
+                return new Partial(range, units, seed, paths, shard, shards, indices, payoffs);
+            }
+        }
+    }
+
+    /**
+     * The merged outcome of all shards of a simulation.
+     */
+    public static final class Result {
+        private final TempBag indices;
+        private final double estimate;
+        private final double standardError;
+        private final int paths;
+
+        private Result(TempBag indices, double estimate, double standardError, int paths) {
+            this.indices = indices;
+            this.estimate = estimate;
+            this.standardError = standardError;
+            this.paths = paths;
+        }
+
+        /**
+         * The simulated distribution of the index.
+         */
+        public TempBag indices() {
+            return indices;
+        }
+
+        /**
+         * The estimated mean payoff.
+         */
+        public double estimate() {
+            return estimate;
+        }
+
+        /**
+         * The standard error of the estimate.
+         */
+        public double standardError() {
+            return standardError;
+        }
+
+        /**
+         * The number of paths simulated.
+         */
+        public int paths() {
+            return paths;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Result[estimate=%s, standardError=%s, paths=%s]", estimate, standardError, paths);
+        }
+    }
+}
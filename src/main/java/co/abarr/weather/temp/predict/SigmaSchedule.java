@@ -0,0 +1,96 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * The volatility of daily temperatures through the year.
+ * <p>
+ * A schedule is resolved into a primitive array for a whole date range at
+ * once, so simulations need not look up the volatility of each day.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public interface SigmaSchedule {
+    /**
+     * The volatility on each day of the supplied range, in the supplied
+     * units.
+     * <p>
+     * Volatilities are temperature differences, so are converted without
+     * offset.
+     */
+    double[] over(DateRange range, TempUnits units);
+
+    /**
+     * The same volatility for all dates.
+     */
+    static SigmaSchedule constant(Temp sigma) {
+        Objects.requireNonNull(sigma);
+        return (range, units) -> {
+            double[] sigmas = new double[range.size()];
+            Arrays.fill(sigmas, units.convertDifference(sigma.doubleValue(), sigma.units()));
+            return sigmas;
+        };
+    }
+
+    /**
+     * A volatility for each month, in calendar order.
+     * <p>
+     * A NaN volatility marks a month with no estimate, and resolving the
+     * schedule over that month will fail. An exception will be thrown if
+     * there are not 12 volatilities, or any volatility is negative or
+     * infinite.
+     */
+    static SigmaSchedule monthly(double[] sigmas, TempUnits units) {
+        return new MonthlySigmas(sigmas, units);
+    }
+
+    /**
+     * A volatility for each calendar day, in the order of a leap year (so
+     * 29 February is the 60th, and 1 March always the 61st).
+     * <p>
+     * An exception will be thrown if there are not 366 volatilities.
+     */
+    static SigmaSchedule daily(double[] sigmas, TempUnits units) {
+        return table(sigmas, 366, units, date -> MonthDay.from(date).atYear(2000).getDayOfYear() - 1);
+    }
+
+    /**
+     * A volatility calculated separately for each date.
+     */
+    static SigmaSchedule of(Function<LocalDate, Temp> sigma) {
+        Objects.requireNonNull(sigma);
+        return (range, units) -> {
+            double[] sigmas = new double[range.size()];
+            for (int i = 0; i < sigmas.length; i++) {
+                Temp temp = sigma.apply(range.get(i));
+                sigmas[i] = units.convertDifference(temp.doubleValue(), temp.units());
+            }
+            return sigmas;
+        };
+    }
+
+    private static SigmaSchedule table(double[] sigmas, int length, TempUnits units, ToIntFunction<LocalDate> index) {
+        Objects.requireNonNull(units);
+        if (sigmas.length != length) {
+            throw new IllegalArgumentException("Invalid number of sigmas: " + sigmas.length);
+        }
+        double[] table = sigmas.clone();
+        return (range, to) -> {
+            double scale = to.convertDifference(1, units);
+            double[] result = new double[range.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = table[index.applyAsInt(range.get(i))] * scale;
+            }
+            return result;
+        };
+    }
+}
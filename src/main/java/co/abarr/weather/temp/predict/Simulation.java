@@ -0,0 +1,277 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempBag;
+import co.abarr.weather.temp.TempIndexer;
+import co.abarr.weather.time.DateRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * A Monte Carlo simulation that runs until its estimate is accurate enough.
+ * <p>
+ * Paths are generated in parallel batches, and after each batch the
+ * standard error of the estimated (mean) payoff is checked against a
+ * target. The simulation stops once the target is met, the time limit is
+ * reached or the maximum number of paths has been generated, whichever is
+ * first. Each path is generated by its own {@link TempPredictor#split},
+ * so a seeded predictor gives the same result however the paths are
+ * spread over threads.
+ * <p>
+ * Created by adam on 19/10/2026.
+ */
+public class Simulation {
+    private static final Logger logger = LoggerFactory.getLogger(Simulation.class);
+
+    private final TempPredictor predictor;
+    private final DateRange range;
+    private final TempIndexer indexer;
+    private final ToDoubleFunction<Temp> payoff;
+    private final double targetError;
+    private final Duration timeLimit;
+    private final int batchSize;
+    private final int maxPaths;
+
+    private Simulation(TempPredictor predictor, DateRange range, TempIndexer indexer, ToDoubleFunction<Temp> payoff, double targetError, Duration timeLimit, int batchSize, int maxPaths) {
+        this.predictor = Objects.requireNonNull(predictor);
+        this.range = Objects.requireNonNull(range);
+        this.indexer = Objects.requireNonNull(indexer);
+        this.payoff = Objects.requireNonNull(payoff);
+        this.targetError = targetError;
+        this.timeLimit = timeLimit;
+        this.batchSize = batchSize;
+        this.maxPaths = maxPaths;
+        if (Double.isNaN(targetError) || targetError < 0) {
+            throw new IllegalArgumentException("Invalid target error: " + targetError);
+        }
+        if (timeLimit != null && timeLimit.isNegative()) {
+            throw new IllegalArgumentException("Invalid time limit: " + timeLimit);
+        }
+        if (batchSize < 2) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
+        if (maxPaths < 1) {
+            throw new IllegalArgumentException("Invalid max paths: " + maxPaths);
+        }
+    }
+
+    /**
+     * Runs the simulation.
+     */
+    public Result run() {
+        return run(() -> false);
+    }
+
+    /**
+     * Runs the simulation on the supplied executor.
+     * <p>
+     * Completing the returned future early (by cancelling it, or a timeout
+     * from {@link CompletableFuture#orTimeout}) stops the simulation once
+     * the current batch is done.
+     */
+    public CompletableFuture<Result> runAsync(Executor executor) {
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(run(future::isDone));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Runs the simulation asynchronously on the common fork-join pool.
+     * <p>
+     * See {@link #runAsync(Executor)}.
+     */
+    public CompletableFuture<Result> runAsync() {
+        return runAsync(ForkJoinPool.commonPool());
+    }
+
+    private Result run(BooleanSupplier abandoned) {
+        long t0 = System.nanoTime();
+        long deadline = timeLimit == null ? Long.MAX_VALUE : t0 + timeLimit.toNanos();
+        TempBag.Builder builder = null;
+        long count = 0;
+        double mean = 0;
+        double m2 = 0;
+        double error = Double.POSITIVE_INFINITY;
+        while (count < maxPaths) {
+            int n = (int) Math.min(batchSize, maxPaths - count);
+            TempPredictor[] splits = new TempPredictor[n];
+            for (int i = 0; i < n; i++) {
+                splits[i] = predictor.split();
+            }
+            Temp[] indices = IntStream.range(0, n)
+                .parallel()
+                .mapToObj(i -> splits[i].predict(range).apply(indexer))
+                .toArray(Temp[]::new);
+            if (builder == null) {
+                builder = TempBag.builder(indices[0].units(), n);
+            }
+            for (Temp index : indices) {
+                builder.add(index);
+                double value = payoff.applyAsDouble(index);
+                count++;
+                double delta = value - mean;
+                mean += delta / count;
+                m2 += delta * (value - mean);
+            }
+            if (count > 1) {
+                error = Math.sqrt(m2 / (count - 1) / count);
+            }
+            if (error <= targetError || System.nanoTime() >= deadline) {
+                break;
+            }
+            if (abandoned.getAsBoolean()) {
+                logger.info("Abandoned simulation after {} paths", count);
+                break;
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - t0);
+        Result result = new Result(builder.build(), mean, error, (int) count, elapsed, error <= targetError);
+        logger.info("Simulated {}", result);
+        return result;
+    }
+
+    /**
+     * Updates the payoff whose mean is estimated.
+     * <p>
+     * By default this is the index itself.
+     */
+    public Simulation payoff(ToDoubleFunction<Temp> payoff) {
+        return new Simulation(predictor, range, indexer, payoff, targetError, timeLimit, batchSize, maxPaths);
+    }
+
+    /**
+     * Updates the standard error (in units of the payoff) at which to stop.
+     * <p>
+     * An exception will be thrown if the error is negative.
+     */
+    public Simulation targetError(double targetError) {
+        return new Simulation(predictor, range, indexer, payoff, targetError, timeLimit, batchSize, maxPaths);
+    }
+
+    /**
+     * Updates the time after which to stop, once the current batch is done.
+     * <p>
+     * An exception will be thrown if the limit is negative.
+     */
+    public Simulation timeLimit(Duration timeLimit) {
+        return new Simulation(predictor, range, indexer, payoff, targetError, Objects.requireNonNull(timeLimit), batchSize, maxPaths);
+    }
+
+    /**
+     * Updates the number of paths generated (in parallel) between checks.
+     * <p>
+     * An exception will be thrown if the size is less than two.
+     */
+    public Simulation batchSize(int batchSize) {
+        return new Simulation(predictor, range, indexer, payoff, targetError, timeLimit, batchSize, maxPaths);
+    }
+
+    /**
+     * Updates the maximum number of paths to generate.
+     * <p>
+     * An exception will be thrown if the number is less than one.
+     */
+    public Simulation maxPaths(int maxPaths) {
+        return new Simulation(predictor, range, indexer, payoff, targetError, timeLimit, batchSize, maxPaths);
+    }
+
+    /**
+     * Creates a new simulation of an index over the supplied date range.
+     * <p>
+     * By default there is no target error or time limit, so the simulation
+     * will generate the maximum of 1,000,000 paths in batches of 1000.
+     */
+    public static Simulation of(TempPredictor predictor, DateRange range, TempIndexer indexer) {
+        return new Simulation(predictor, range, indexer, Temp::doubleValue, 0, null, 1000, 1_000_000);
+    }
+
+    /**
+     * The outcome of a simulation.
+     */
+    public static final class Result {
+        private final TempBag indices;
+        private final double estimate;
+        private final double standardError;
+        private final int paths;
+        private final Duration elapsed;
+        private final boolean converged;
+
+        private Result(TempBag indices, double estimate, double standardError, int paths, Duration elapsed, boolean converged) {
+            this.indices = indices;
+            this.estimate = estimate;
+            this.standardError = standardError;
+            this.paths = paths;
+            this.elapsed = elapsed;
+            this.converged = converged;
+        }
+
+        /**
+         * The simulated distribution of the index.
+         */
+        public TempBag indices() {
+            return indices;
+        }
+
+        /**
+         * The estimated mean payoff.
+         */
+        public double estimate() {
+            return estimate;
+        }
+
+        /**
+         * The standard error of the estimate.
+         */
+        public double standardError() {
+            return standardError;
+        }
+
+        /**
+         * The number of paths generated.
+         */
+        public int paths() {
+            return paths;
+        }
+
+        /**
+         * How long the simulation took.
+         */
+        public Duration elapsed() {
+            return elapsed;
+        }
+
+        /**
+         * Whether the target error was met.
+         */
+        public boolean converged() {
+            return converged;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%s +/- %s from %s paths in %sms%s",
+                estimate,
+                standardError,
+                paths,
+                elapsed.toMillis(),
+                converged ? "" : " (not converged)"
+            );
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package co.abarr.weather.temp.predict;
 
 import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempBag;
+import co.abarr.weather.temp.TempIndexer;
 import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempSketch;
 import co.abarr.weather.time.DateRange;
 
 import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * API for classes that can predict a temperature series.
@@ -24,6 +31,86 @@ public interface TempPredictor {
         return predict(DateRange.of(start, end));
     }
 
+    /**
+     * A predictor that generates paths independently of this one, so that
+     * paths can be generated on several threads at once.
+     * <p>
+     * Predictors with random state should return a copy with its own random
+     * number generator, seeded from theirs, so a seeded predictor still gives
+     * the same paths. By default this returns the predictor itself.
+     */
+    default TempPredictor split() {
+        return this;
+    }
+
+    /**
+     * Predicts temperatures over the supplied date range on the supplied
+     * executor.
+     * <p>
+     * Data-bound predictors should be given an executor suited to blocking
+     * work, rather than the common pool.
+     */
+    default CompletableFuture<TempSeries> predictAsync(DateRange range, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> predict(range), executor);
+    }
+
+    /**
+     * Predicts temperatures over the supplied date range on the common
+     * fork-join pool.
+     */
+    default CompletableFuture<TempSeries> predictAsync(DateRange range) {
+        return predictAsync(range, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Estimates the distribution of an index over the supplied date range.
+     * <p>
+     * Each of the paths is a separate prediction, so this is only meaningful
+     * for predictors that produce random paths.
+     */
+    default TempBag simulate(DateRange range, TempIndexer indexer, int paths) {
+        return TempBag.generate(paths, () -> predict(range).apply(indexer));
+    }
+
+    /**
+     * Approximates the distribution of an index over the supplied date range.
+     * <p>
+     * Like {@link #simulate}, but paths are generated in parallel and only
+     * a bounded sketch of the index values is kept. Each path is generated by
+     * its own {@link #split}, so the paths are repeatable whatever thread they
+     * are generated on.
+     */
+    default TempSketch sketch(DateRange range, TempIndexer indexer, int paths) {
+        TempSketch sketch = TempSketch.empty();
+        for (int done = 0; done < paths; done += 1000) {
+            TempPredictor[] splits = new TempPredictor[Math.min(1000, paths - done)];
+            for (int i = 0; i < splits.length; i++) {
+                splits[i] = split();
+            }
+            sketch.merge(TempSketch.generate(splits.length, (int i) -> splits[i].predict(range).apply(indexer)));
+        }
+        return sketch;
+    }
+
+    /**
+     * Sets up a simulation of an index over the supplied date range, which
+     * can generate paths until some accuracy is reached.
+     * <p>
+     * See {@link Simulation}.
+     */
+    default Simulation simulation(DateRange range, TempIndexer indexer) {
+        return Simulation.of(this, range, indexer);
+    }
+
+    /**
+     * The parameters of this predictor, if it can be persisted.
+     * <p>
+     * See {@link ModelParams}.
+     */
+    default Optional<ModelParams> params() {
+        return Optional.empty();
+    }
+
     /**
      * Predicts the same temperature for all dates.
      */
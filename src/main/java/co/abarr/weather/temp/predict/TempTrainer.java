@@ -13,6 +13,24 @@ public interface TempTrainer {
      */
     TempPredictor train(TempSeries train);
 
+    /**
+     * Caches up to some number of trained predictors.
+     * <p>
+     * See {@link CachingTrainer}.
+     */
+    default CachingTrainer cached(int maxSize) {
+        return CachingTrainer.of(this, maxSize);
+    }
+
+    /**
+     * Trains on many series concurrently.
+     * <p>
+     * See {@link BulkTrainer}.
+     */
+    default BulkTrainer bulk() {
+        return BulkTrainer.of(this);
+    }
+
     /**
      * A simplistic model that just returns the mean of the training data.
      */
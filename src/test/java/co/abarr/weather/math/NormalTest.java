@@ -0,0 +1,30 @@
+package co.abarr.weather.math;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class NormalTest {
+    @Test
+    void cdf_OfZero_ShouldBeHalf() {
+        assertThat(Normal.cdf(0)).isCloseTo(0.5, within(1e-7));
+    }
+
+    @Test
+    void cdf_OfKnownValue_ShouldBeCorrect() {
+        assertThat(Normal.cdf(1.96)).isCloseTo(0.9750021, within(1e-6));
+    }
+
+    @Test
+    void inverseCdf_OfCdf_ShouldRoundTrip() {
+        assertThat(Normal.inverseCdf(Normal.cdf(-2.5))).isCloseTo(-2.5, within(1e-6));
+    }
+
+    @Test
+    void inverseCdf_OfOne_ShouldThrowException() {
+        assertThatThrownBy(() -> Normal.inverseCdf(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,62 @@
+package co.abarr.weather.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class SymmetricSolverTest {
+    @Test
+    void solve_MismatchedDimensions_ShouldThrowException() {
+        assertThatThrownBy(() -> SymmetricSolver.solve(new double[4], new double[3])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void solveInJava_NotPositiveDefinite_ShouldThrowException() {
+        double[] a = {1, 2, 2, 1};
+        assertThatThrownBy(() -> SymmetricSolver.solveInJava(a, new double[]{1, 1})).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void solveInJava_SmallSystem_ShouldBeCorrect() {
+        double[] a = {
+            4, 2, 0,
+            0, 5, 1,
+            0, 0, 3
+        };
+        double[] x = SymmetricSolver.solveInJava(a, new double[]{6, 9, 7});
+        assertThat(x[0]).isCloseTo(1.0, within(1e-12));
+        assertThat(x[1]).isCloseTo(1.0, within(1e-12));
+        assertThat(x[2]).isCloseTo(2.0, within(1e-12));
+    }
+
+    @Test
+    void solveInJava_BadlyScaledNormalEquations_ShouldRecoverCoefficients() {
+        int n = 4;
+        double[] expected = {10, 0.0001, -3, 4};
+        double[] xtx = new double[n * n];
+        double[] xty = new double[n];
+        Random random = new Random(0);
+        for (int t = 1; t <= 50000; t++) {
+            double[] x = {1, t, Math.sin(t / 58.1), Math.cos(t / 58.1)};
+            double y = random.nextGaussian() * 1e-6;
+            for (int i = 0; i < n; i++) {
+                y += expected[i] * x[i];
+            }
+            for (int i = 0; i < n; i++) {
+                xty[i] += x[i] * y;
+                for (int j = i; j < n; j++) {
+                    xtx[i * n + j] += x[i] * x[j];
+                }
+            }
+        }
+        double[] actual = SymmetricSolver.solveInJava(xtx, xty);
+        for (int i = 0; i < n; i++) {
+            assertThat(actual[i]).isCloseTo(expected[i], within(1e-6 * Math.max(1, Math.abs(expected[i]))));
+        }
+    }
+}
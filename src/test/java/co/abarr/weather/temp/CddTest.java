@@ -0,0 +1,32 @@
+package co.abarr.weather.temp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class CddTest {
+    private final Cdd cdd = new Cdd(Temp.fahrenheit(65));
+    private final LocalDate date = LocalDate.parse("2020-01-01");
+
+    @Test
+    void indexFor_EmptySeries_ShouldBeZero() {
+        assertThat(cdd.indexFor(TempSeries.empty())).isEqualTo(Temp.fahrenheit(0));
+    }
+
+    @Test
+    void indexFor_TempBelowReference_ShouldBeZero() {
+        TempSeries series = TempSeries.of(TempSeries.entry(date, Temp.fahrenheit(60)));
+        assertThat(cdd.indexFor(series)).isEqualTo(Temp.fahrenheit(0));
+    }
+
+    @Test
+    void indexFor_TempAboveReference_ShouldBeCorrect() {
+        TempSeries series = TempSeries.of(TempSeries.entry(date, Temp.fahrenheit(70)));
+        assertThat(cdd.indexFor(series)).isEqualTo(Temp.fahrenheit(5));
+    }
+}
@@ -0,0 +1,57 @@
+package co.abarr.weather.temp;
+
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class DegreeDaysTest {
+    private final TempSeries series = TempSeries.of(
+        DateRange.of(LocalDate.parse("2020-01-01"), LocalDate.parse("2022-01-01")),
+        (LocalDate date) -> date.getDayOfMonth() == 13 ? null : Temp.fahrenheit(65 + 30 * Math.sin(date.toEpochDay() / 58.0))
+    );
+    private final DegreeDays degreeDays = series.degreeDays(Temp.fahrenheit(65));
+
+    @Test
+    void hdd_OfEmptySeries_ShouldBeZero() {
+        DegreeDays empty = TempSeries.empty().degreeDays(Temp.fahrenheit(65));
+        assertThat(empty.hdd(DateRange.year(2020))).isEqualTo(Temp.fahrenheit(0));
+    }
+
+    @Test
+    void hdd_OverRangeWithGaps_ShouldMatchIndexOfSubSeries() {
+        DateRange range = DateRange.of(LocalDate.parse("2020-11-01"), LocalDate.parse("2021-04-01"));
+        Temp expected = series.subSeries(range).apply(TempIndexer.HDD_65);
+        assertThat(degreeDays.hdd(range).doubleValue()).isCloseTo(expected.doubleValue(), within(1e-6));
+    }
+
+    @Test
+    void hdd_OverRangeOutsideSeries_ShouldOnlyCountSeries() {
+        DateRange range = DateRange.of(LocalDate.parse("2019-06-01"), LocalDate.parse("2020-02-01"));
+        Temp expected = series.subSeries(range).apply(TempIndexer.HDD_65);
+        assertThat(degreeDays.hdd(range).doubleValue()).isCloseTo(expected.doubleValue(), within(1e-6));
+        assertThat(degreeDays.hdd(DateRange.year(2030))).isEqualTo(Temp.fahrenheit(0));
+    }
+
+    @Test
+    void cdd_OverRange_ShouldSumDegreesAboveReference() {
+        DateRange range = DateRange.year(2021);
+        double expected = 0;
+        for (TempSeries.Entry entry : series.subSeries(range)) {
+            expected += Math.max(entry.temp().doubleValue() - 65, 0);
+        }
+        assertThat(degreeDays.cdd(range).doubleValue()).isCloseTo(expected, within(1e-6));
+    }
+
+    @Test
+    void hdd_WithMismatchedUnits_ShouldBeInReferenceUnits() {
+        DegreeDays celsius = series.toCelsius().degreeDays(Temp.fahrenheit(65));
+        assertThat(celsius.hdd(DateRange.year(2020)).units()).isEqualTo(TempUnits.FAHRENHEIT);
+    }
+}
@@ -0,0 +1,57 @@
+package co.abarr.weather.temp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class MultiIndexerTest {
+    private final LocalDate date = LocalDate.parse("2020-01-01");
+    private final TempSeries series = TempSeries.of(
+        TempSeries.entry(date, Temp.fahrenheit(60)),
+        TempSeries.entry(date.plusDays(1), Temp.fahrenheit(70)),
+        TempSeries.entry(date.plusDays(2), Temp.fahrenheit(20))
+    );
+
+    @Test
+    void indexFor_EmptySeries_ShouldBeZeros() {
+        MultiIndexer indexer = TempIndexer.all(TempIndexer.HDD_65, TempIndexer.CDD_65);
+        assertThat(indexer.indexFor(TempSeries.empty())).containsExactly(Temp.fahrenheit(0), Temp.fahrenheit(0));
+    }
+
+    @Test
+    void indexFor_DailyIndices_ShouldMatchSeparateEvaluation() {
+        MultiIndexer indexer = TempIndexer.all(
+            TempIndexer.HDD_65,
+            TempIndexer.CDD_65,
+            TempIndexer.cat(TempUnits.FAHRENHEIT),
+            TempIndexer.daysBelow(Temp.fahrenheit(32))
+        );
+        assertThat(indexer.indexFor(series)).containsExactly(
+            Temp.fahrenheit(50),
+            Temp.fahrenheit(5),
+            Temp.fahrenheit(150),
+            Temp.fahrenheit(1)
+        );
+    }
+
+    @Test
+    void indexFor_MixedUnits_ShouldBeInUnitsOfEachIndex() {
+        MultiIndexer indexer = TempIndexer.all(TempIndexer.HDD_65, TempIndexer.hdd(Temp.celsius(18)));
+        assertThat(indexer.indexFor(series)).containsExactly(
+            series.apply(TempIndexer.HDD_65),
+            series.apply(TempIndexer.hdd(Temp.celsius(18)))
+        );
+    }
+
+    @Test
+    void indexFor_CustomIndex_ShouldBeEvaluatedSeparately() {
+        TempIndexer max = s -> s.stream().map(TempSeries.Entry::temp).max(Temp::compareTo).orElseThrow();
+        MultiIndexer indexer = TempIndexer.all(TempIndexer.HDD_65, max);
+        assertThat(indexer.indexFor(series)).containsExactly(Temp.fahrenheit(50), Temp.fahrenheit(70));
+    }
+}
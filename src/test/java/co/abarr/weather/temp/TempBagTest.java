@@ -4,6 +4,10 @@ import co.abarr.weather.math.Fraction;
 import co.abarr.weather.math.Probability;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
 import static org.assertj.core.api.Assertions.*;
 
 /**
@@ -160,4 +164,97 @@ class TempBagTest {
         TempBag distribution = TempBag.of(Temp.fahrenheit(40), Temp.fahrenheit(41), Temp.fahrenheit(41));
         assertThat(distribution.mid()).contains(Temp.fahrenheit(40.5));
     }
+
+    @Test
+    void stdev_OfSingleTemp_ShouldNotExist() {
+        assertThat(TempBag.of(Temp.celsius(1)).stdev()).isEmpty();
+    }
+
+    @Test
+    void stdev_OfNonEmptyDistribution_ShouldBeCorrect() {
+        TempBag distribution = TempBag.of(Temp.celsius(1), Temp.celsius(3), Temp.celsius(5));
+        assertThat(distribution.stdev()).contains(Temp.celsius(2));
+    }
+
+    @Test
+    void builder_WithPrimitiveTemps_ShouldSortIntoBag() {
+        TempBag.Builder builder = TempBag.builder(TempUnits.CELSIUS);
+        for (int i = 100; i > 0; i--) {
+            builder.add(i);
+        }
+        TempBag temps = builder.add(Temp.celsius(0)).build();
+        assertThat(builder.size()).isEqualTo(101);
+        assertThat(temps.quantile(Fraction.of(0))).isEqualTo(Temp.celsius(0));
+        assertThat(temps.quantile(Fraction.of(0.5))).isEqualTo(Temp.celsius(50));
+    }
+
+    @Test
+    void of_DoubleArray_ShouldNotDependOnArray() {
+        double[] array = {3, 1, 2};
+        TempBag temps = TempBag.of(array, TempUnits.CELSIUS);
+        array[0] = 0;
+        assertThat(temps).isEqualTo(TempBag.of(Temp.celsius(1), Temp.celsius(2), Temp.celsius(3)));
+    }
+
+    @Test
+    void of_LargeDoubleArray_ShouldBeSorted() {
+        double[] array = new double[100_000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = array.length - i;
+        }
+        TempBag temps = TempBag.of(array, TempUnits.KELVIN);
+        assertThat(temps.quantile(Fraction.of(0))).isEqualTo(Temp.kelvin(1));
+        assertThat(temps.quantile(Fraction.of(1))).isEqualTo(Temp.kelvin(100_000));
+    }
+
+    @Test
+    void generate_ShouldUseUnitsOfFirstTemp() {
+        TempBag temps = TempBag.generate(3, () -> Temp.fahrenheit(41));
+        assertThat(temps).isEqualTo(TempBag.of(Temp.fahrenheit(41), Temp.fahrenheit(41), Temp.fahrenheit(41)));
+    }
+
+    @Test
+    void quantileOf_WithDuplicates_ShouldCountTempsBelow() {
+        TempBag temps = TempBag.of(Temp.celsius(1), Temp.celsius(2), Temp.celsius(2), Temp.celsius(2), Temp.celsius(3));
+        assertThat(temps.quantileOf(Temp.celsius(2))).isEqualTo(Fraction.of(0.2));
+    }
+
+    @Test
+    void expectedExcessOver_EmptyBag_ShouldThrowException() {
+        assertThatThrownBy(() -> TempBag.empty().expectedExcessOver(Temp.celsius(0))).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void expectedExcessOver_StrikeInMiddle_ShouldBeCorrect() {
+        TempBag temps = TempBag.of(Temp.celsius(1), Temp.celsius(2), Temp.celsius(4), Temp.celsius(5));
+        assertThat(temps.expectedExcessOver(Temp.celsius(3))).isEqualTo(Temp.celsius(0.75));
+    }
+
+    @Test
+    void expectedExcessOver_StrikeBelowMin_ShouldBeMeanLessStrike() {
+        TempBag temps = TempBag.of(Temp.celsius(1), Temp.celsius(2), Temp.celsius(4), Temp.celsius(5));
+        assertThat(temps.expectedExcessOver(Temp.celsius(0))).isEqualTo(Temp.celsius(3));
+    }
+
+    @Test
+    void expectedShortfallUnder_StrikeInMiddle_ShouldBeCorrect() {
+        TempBag temps = TempBag.of(Temp.celsius(1), Temp.celsius(2), Temp.celsius(4), Temp.celsius(5));
+        assertThat(temps.expectedShortfallUnder(Temp.celsius(3))).isEqualTo(Temp.celsius(0.75));
+    }
+
+    @Test
+    void expectedShortfallUnder_StrikeAboveMax_ShouldBeStrikeLessMean() {
+        TempBag temps = TempBag.of(Temp.celsius(1), Temp.celsius(2), Temp.celsius(4), Temp.celsius(5));
+        assertThat(temps.expectedShortfallUnder(Temp.celsius(10))).isEqualTo(Temp.celsius(7));
+    }
+
+    @Test
+    void expectedExcessOver_LadderOfStrikes_ShouldBeKeyedByStrike() {
+        TempBag temps = TempBag.of(Temp.celsius(1), Temp.celsius(2), Temp.celsius(4), Temp.celsius(5));
+        Map<Temp, Temp> payoffs = temps.expectedExcessOver(Arrays.asList(Temp.celsius(5), Temp.celsius(3)));
+        assertThat(payoffs).containsExactly(
+            entry(Temp.celsius(3), Temp.celsius(0.75)),
+            entry(Temp.celsius(5), Temp.celsius(0))
+        );
+    }
 }
\ No newline at end of file
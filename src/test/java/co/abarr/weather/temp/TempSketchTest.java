@@ -0,0 +1,103 @@
+package co.abarr.weather.temp;
+
+import co.abarr.weather.math.Fraction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class TempSketchTest {
+    private TempSketch uniform(int n) {
+        TempSketch sketch = TempSketch.empty(200);
+        Random random = new Random(0);
+        for (int i = 0; i < n; i++) {
+            sketch.add(Temp.celsius(random.nextDouble() * 100));
+        }
+        return sketch;
+    }
+
+    @Test
+    void empty_WithTinyK_ShouldThrowException() {
+        assertThatThrownBy(() -> TempSketch.empty(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void add_MixedUnits_ShouldConvertToUnitsOfFirst() {
+        TempSketch sketch = TempSketch.empty().add(Temp.celsius(6)).add(Temp.fahrenheit(41));
+        assertThat(sketch.quantile(Fraction.of(0))).isEqualTo(Temp.celsius(5));
+    }
+
+    @Test
+    void quantile_WhenSmall_ShouldMatchBag() {
+        TempSketch sketch = TempSketch.empty().add(Temp.celsius(5)).add(Temp.celsius(1)).add(Temp.celsius(4)).add(Temp.celsius(2));
+        TempBag bag = TempBag.of(Temp.celsius(5), Temp.celsius(1), Temp.celsius(4), Temp.celsius(2));
+        assertThat(sketch.quantile(Fraction.of(0.5))).isEqualTo(bag.quantile(Fraction.of(0.5)));
+        assertThat(sketch.quantile(Fraction.of(0.9))).isEqualTo(bag.quantile(Fraction.of(0.9)));
+        assertThat(sketch.quantileOf(Temp.celsius(3))).isEqualTo(bag.quantileOf(Temp.celsius(3)));
+        assertThat(sketch.pMoreThanOrEqualTo(Temp.celsius(4))).isEqualTo(bag.pMoreThanOrEqualTo(Temp.celsius(4)));
+        assertThat(sketch.expectedExcessOver(Temp.celsius(3))).isEqualTo(bag.expectedExcessOver(Temp.celsius(3)));
+    }
+
+    @Test
+    void quantile_WhenLarge_ShouldBeApproximatelyCorrect() {
+        TempSketch sketch = uniform(1_000_000);
+        assertThat(sketch.quantile(Fraction.of(0.1)).doubleValue()).isCloseTo(10.0, within(2.0));
+        assertThat(sketch.quantile(Fraction.of(0.5)).doubleValue()).isCloseTo(50.0, within(2.0));
+        assertThat(sketch.quantileOf(Temp.celsius(90)).doubleValue()).isCloseTo(0.9, within(0.02));
+    }
+
+    @Test
+    void retained_WhenLarge_ShouldBeBounded() {
+        TempSketch sketch = uniform(1_000_000);
+        assertThat(sketch.count()).isEqualTo(1_000_000L);
+        assertThat(sketch.retained()).isLessThan(1000);
+    }
+
+    @Test
+    void mean_WhenLarge_ShouldBeExact() {
+        TempSketch sketch = TempSketch.empty(8);
+        for (int i = 1; i <= 1000; i++) {
+            sketch.add(i);
+        }
+        assertThat(sketch.mean().get().doubleValue()).isCloseTo(500.5, within(1e-9));
+        assertThat(sketch.quantile(Fraction.of(0))).isEqualTo(Temp.kelvin(1));
+        assertThat(sketch.quantile(Fraction.of(1))).isEqualTo(Temp.kelvin(1000));
+    }
+
+    @Test
+    void merge_TwoSketches_ShouldMatchSingleSketch() {
+        TempSketch low = TempSketch.empty();
+        TempSketch high = TempSketch.empty();
+        for (int i = 0; i < 5000; i++) {
+            low.add(Temp.celsius(i));
+            high.add(Temp.celsius(5000 + i));
+        }
+        TempSketch merged = low.merge(high);
+        assertThat(merged.count()).isEqualTo(10000L);
+        assertThat(merged.mean().get().doubleValue()).isCloseTo(4999.5, within(1e-6));
+        assertThat(merged.stdev().get().doubleValue()).isCloseTo(2886.9, within(0.1));
+        assertThat(merged.quantile(Fraction.of(0.5)).doubleValue()).isCloseTo(5000.0, within(100.0));
+    }
+
+    @Test
+    void merge_WithItself_ShouldDoubleCount() {
+        TempSketch sketch = TempSketch.empty();
+        for (int i = 0; i < 1000; i++) {
+            sketch.add(Temp.fahrenheit(i));
+        }
+        sketch.merge(sketch);
+        assertThat(sketch.count()).isEqualTo(2000L);
+        assertThat(sketch.mean().get().doubleValue()).isCloseTo(499.5, within(1e-6));
+    }
+
+    @Test
+    void generate_InParallel_ShouldContainAllTemps() {
+        TempSketch sketch = TempSketch.generate(100_000, i -> Temp.fahrenheit(50));
+        assertThat(sketch.count()).isEqualTo(100_000L);
+        assertThat(sketch.quantile(Fraction.of(0.5))).isEqualTo(Temp.fahrenheit(50));
+    }
+}
@@ -2,7 +2,7 @@ package co.abarr.weather.temp;
 
 import org.junit.jupiter.api.Test;
 
-import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.*;
 
 /**
  * Created by adam on 30/11/2020.
@@ -12,4 +12,9 @@ class TempUnitsTest {
     void shortCode_ForKelvin_ShouldBeK() {
         assertThat(TempUnits.KELVIN.shortCode()).isEqualTo("K");
     }
+
+    @Test
+    void convertDifference_FromCelsiusToFahrenheit_ShouldIgnoreOffset() {
+        assertThat(TempUnits.FAHRENHEIT.convertDifference(10, TempUnits.CELSIUS)).isCloseTo(18.0, within(1e-9));
+    }
 }
\ No newline at end of file
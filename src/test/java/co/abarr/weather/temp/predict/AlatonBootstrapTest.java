@@ -0,0 +1,87 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class AlatonBootstrapTest {
+    private final LocalDate origin = LocalDate.parse("1990-01-01");
+    private final TempSeries observed = OrnsteinUhlenbeck.on(SeasonalMean.of(origin, 12, 0.0001, 9, -2, TempUnits.CELSIUS))
+        .alpha(0.2)
+        .sigma(Temp.celsius(2))
+        .random(new Random(0))
+        .predict(DateRange.of(origin, origin.plusYears(10)));
+
+    @Test
+    void samples_IsZero_ShouldThrowException() {
+        AlatonBootstrap bootstrap = AlatonBootstrap.create();
+        assertThatThrownBy(() -> bootstrap.samples(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void run_EmptySeries_ShouldThrowException() {
+        AlatonBootstrap bootstrap = AlatonBootstrap.create();
+        assertThatThrownBy(() -> bootstrap.run(TempSeries.empty())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void run_SameSeed_ShouldBeRepeatable() {
+        AlatonBootstrap bootstrap = AlatonBootstrap.create().samples(20).seed(1);
+        assertThat(bootstrap.run(observed)).isEqualTo(bootstrap.run(observed));
+    }
+
+    @Test
+    void run_SimulatedSeries_ShouldSpreadAroundFullFit() {
+        assertSpreadAroundFullFit(observed);
+    }
+
+    @Test
+    void run_TwoYearSeries_ShouldSpreadAroundFullFit() {
+        assertSpreadAroundFullFit(observed.subSeries(DateRange.of(origin, origin.plusYears(2))));
+    }
+
+    @Test
+    void run_BlockAsLongAsSeries_ShouldMatchTraining() {
+        AlatonBootstrap.Result result = AlatonBootstrap.create().samples(3).blockLength(observed.size()).run(observed);
+        AlatonParams trained = (AlatonParams) TempTrainer.ALATON.train(observed).params().orElseThrow();
+        assertThat(result).containsExactly(trained, trained, trained);
+    }
+
+    @Test
+    void run_OneYearSeries_ShouldFitEverySample() {
+        TempSeries firstYear = observed.subSeries(DateRange.of(origin, origin.plusYears(1)));
+        AlatonBootstrap.Result result = AlatonBootstrap.create().samples(50).seed(0).run(firstYear);
+        assertThat(result).hasSize(50);
+        assertThat(result.stdev(AlatonParams::alpha)).isGreaterThan(0.0);
+    }
+
+    private static void assertSpreadAroundFullFit(TempSeries series) {
+        AlatonBootstrap.Result result = AlatonBootstrap.create().samples(200).seed(0).run(series);
+        AlatonParams trained = (AlatonParams) TempTrainer.ALATON.train(series).params().orElseThrow();
+        assertThat(result).hasSize(200);
+        assertBrackets(result, AlatonParams::alpha, trained.alpha());
+        assertBrackets(result, params -> params.mean().a(), trained.mean().a());
+        for (int i = 0; i < 12; i++) {
+            int month = i;
+            double sigma = trained.sigmas()[month];
+            assertBrackets(result, params -> params.sigmas()[month], sigma);
+            assertThat(result.quantile(params -> params.sigmas()[month], 0.5)).isCloseTo(sigma, within(0.05 * sigma));
+        }
+    }
+
+    private static void assertBrackets(AlatonBootstrap.Result result, ToDoubleFunction<AlatonParams> parameter, double value) {
+        assertThat(result.quantile(parameter, 0.01)).isLessThan(value);
+        assertThat(result.quantile(parameter, 0.99)).isGreaterThan(value);
+    }
+}
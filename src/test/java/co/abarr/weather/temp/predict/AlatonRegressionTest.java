@@ -0,0 +1,73 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class AlatonRegressionTest {
+    private final LocalDate origin = LocalDate.parse("2010-01-01");
+    private final SeasonalMean model = SeasonalMean.of(origin, 50, 0.001, 20, -2, TempUnits.FAHRENHEIT);
+    private final TempSeries observed = model.predict(DateRange.of(origin, LocalDate.parse("2015-01-01")));
+
+    @Test
+    void of_EmptySeries_ShouldThrowException() {
+        assertThatThrownBy(() -> AlatonRegression.of(TempSeries.empty())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fit_WithTooFewObservations_ShouldThrowException() {
+        AlatonRegression regression = AlatonRegression.from(origin, TempUnits.FAHRENHEIT).add(origin, 50);
+        assertThatThrownBy(regression::fit).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void fit_OnExactModel_ShouldRecoverParameters() {
+        SeasonalMean fit = AlatonRegression.of(observed).fit();
+        assertThat(fit.a()).isCloseTo(50.0, within(1e-6));
+        assertThat(fit.b()).isCloseTo(0.001, within(1e-9));
+        assertThat(fit.c()).isCloseTo(20.0, within(1e-6));
+        assertThat(fit.theta()).isCloseTo(-2.0, within(1e-6));
+    }
+
+    @Test
+    void fit_WithMixedUnits_ShouldConvertToRegressionUnits() {
+        SeasonalMean fit = AlatonRegression.from(origin, TempUnits.FAHRENHEIT).add(observed.toCelsius()).fit();
+        assertThat(fit.a()).isCloseTo(50.0, within(1e-6));
+    }
+
+    @Test
+    void remove_WhenSlidingWindow_ShouldMatchFitOnWindow() {
+        LocalDate cutoff = LocalDate.parse("2011-01-01");
+        TempSeries noisy = observed.map((date, temp) -> temp.plus(Temp.fahrenheit(Math.sin(date.toEpochDay()))));
+        AlatonRegression sliding = AlatonRegression.from(origin, TempUnits.FAHRENHEIT).add(noisy);
+        for (TempSeries.Entry entry : noisy.head(cutoff)) {
+            sliding.remove(entry.date(), entry.temp().doubleValue());
+        }
+        TempSeries window = noisy.subSeries(DateRange.of(cutoff, LocalDate.parse("2015-01-01")));
+        SeasonalMean expected = AlatonRegression.from(origin, TempUnits.FAHRENHEIT).add(window).fit();
+        SeasonalMean actual = sliding.fit();
+        assertThat(sliding.size()).isEqualTo(window.size());
+        assertThat(actual.a()).isCloseTo(expected.a(), within(1e-6));
+        assertThat(actual.b()).isCloseTo(expected.b(), within(1e-9));
+        assertThat(actual.c()).isCloseTo(expected.c(), within(1e-6));
+    }
+
+    @Test
+    void remove_AfterLongHistory_ShouldStillRecoverParameters() {
+        TempSeries history = model.predict(DateRange.of(origin, LocalDate.parse("2070-01-01")));
+        TempSeries removed = history.head(LocalDate.parse("2065-01-01"));
+        SeasonalMean fit = AlatonRegression.of(history).remove(removed).fit();
+        assertThat(fit.a()).isCloseTo(50.0, within(1e-6));
+        assertThat(fit.b()).isCloseTo(0.001, within(1e-10));
+        assertThat(fit.c()).isCloseTo(20.0, within(1e-6));
+    }
+}
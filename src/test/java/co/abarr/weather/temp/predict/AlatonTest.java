@@ -0,0 +1,63 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class AlatonTest {
+    private final LocalDate origin = LocalDate.parse("1990-01-01");
+    private final SeasonalMean mean = SeasonalMean.of(origin, 12, 0.0001, 9, -2, TempUnits.CELSIUS);
+    private final TempSeries observed = OrnsteinUhlenbeck.on(mean)
+        .alpha(0.2)
+        .sigma(Temp.celsius(2))
+        .random(new Random(0))
+        .predict(DateRange.of(origin, origin.plusYears(30)));
+
+    @Test
+    void train_EmptySeries_ShouldThrowException() {
+        assertThatThrownBy(() -> TempTrainer.ALATON.train(TempSeries.empty())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void predict_MonthWithoutObservations_ShouldThrowException() {
+        TempPredictor trained = TempTrainer.ALATON.train(observed.subSeries(DateRange.of(origin, origin.plusMonths(6))));
+        assertThat(trained.predict(DateRange.yearMonth(1991, 6)).size()).isEqualTo(30);
+        assertThatThrownBy(() -> trained.predict(DateRange.yearMonth(1991, 7)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("JULY");
+    }
+
+    @Test
+    void train_SimulatedSeries_ShouldRecoverMeanReversion() {
+        OrnsteinUhlenbeck trained = (OrnsteinUhlenbeck) TempTrainer.ALATON.train(observed);
+        assertThat(trained.alpha()).isCloseTo(-Math.log(0.8), within(0.02));
+    }
+
+    @Test
+    void train_SeriesWithGaps_ShouldMatchMeansToDates() {
+        TempSeries gappy = observed.subSeries(DateRange.of(origin, origin.plusYears(10)));
+        for (LocalDate start = origin.plusYears(10); start.isBefore(origin.plusYears(30)); start = start.plusMonths(3)) {
+            gappy = TempSeries.of(concat(gappy, observed.subSeries(DateRange.of(start.plusDays(20), start.plusMonths(3)))));
+        }
+        OrnsteinUhlenbeck trained = (OrnsteinUhlenbeck) TempTrainer.ALATON.train(gappy);
+        assertThat(trained.alpha()).isCloseTo(-Math.log(0.8), within(0.03));
+    }
+
+    private static List<TempSeries.Entry> concat(TempSeries a, TempSeries b) {
+        List<TempSeries.Entry> entries = new ArrayList<>(a);
+        entries.addAll(b);
+        return entries;
+    }
+}
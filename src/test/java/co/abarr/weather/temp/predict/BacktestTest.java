@@ -0,0 +1,95 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.math.Fraction;
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class BacktestTest {
+    private final TempSeries series = TempSeries.of(DateRange.year(2020), (int i) -> Temp.fahrenheit(60));
+
+    @Test
+    void paths_Zero_ShouldThrowException() {
+        assertThatThrownBy(() -> Backtest.of(TempTrainer.MEAN).paths(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cutoffs_Monthly_ShouldBeCorrect() {
+        List<LocalDate> cutoffs = Backtest.cutoffs(LocalDate.parse("2020-01-01"), LocalDate.parse("2020-03-15"), Period.ofMonths(1));
+        assertThat(cutoffs).containsExactly(
+            LocalDate.parse("2020-01-01"),
+            LocalDate.parse("2020-02-01"),
+            LocalDate.parse("2020-03-01")
+        );
+    }
+
+    @Test
+    void run_WithoutTrainingDataOrOutcome_ShouldSkipWindow() {
+        Backtest.Result result = Backtest.of(TempTrainer.MEAN).paths(1).run(
+            series,
+            List.of(LocalDate.parse("2020-01-01"), LocalDate.parse("2020-06-01"), LocalDate.parse("2020-12-15"))
+        );
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).cutoff()).isEqualTo(LocalDate.parse("2020-06-01"));
+    }
+
+    @Test
+    void run_WhenForecastIsExact_ShouldHaveNoError() {
+        Backtest.Result result = Backtest.of(TempTrainer.MEAN).paths(10).run(
+            series,
+            Backtest.cutoffs(LocalDate.parse("2020-02-01"), LocalDate.parse("2020-12-01"), Period.ofMonths(1))
+        );
+        assertThat(result).hasSize(10);
+        assertThat(result.get(0).actual()).isEqualTo(Temp.fahrenheit(145));
+        assertThat(result.bias()).contains(Temp.fahrenheit(0));
+        assertThat(result.rootMeanSquaredError()).contains(Temp.fahrenheit(0));
+    }
+
+    @Test
+    void bias_WhenEmpty_ShouldNotExist() {
+        Backtest.Result result = Backtest.of(TempTrainer.MEAN).run(series, List.of());
+        assertThat(result.bias()).isEmpty();
+    }
+
+    @Test
+    void coverage_AllQuantiles_ShouldCoverEveryWindow() {
+        Backtest.Result result = Backtest.of(TempTrainer.MEAN).paths(10).run(
+            series,
+            Backtest.cutoffs(LocalDate.parse("2020-02-01"), LocalDate.parse("2020-12-01"), Period.ofMonths(1))
+        );
+        assertThat(result.coverage(Fraction.of(1))).contains(Fraction.of(1));
+    }
+
+    @Test
+    void coverage_WhenEmpty_ShouldNotExist() {
+        Backtest.Result result = Backtest.of(TempTrainer.MEAN).run(series, List.of());
+        assertThat(result.coverage(Fraction.of(0.5))).isEmpty();
+    }
+
+    @Test
+    void run_AlatonOnShortHistory_ShouldSkipUnforecastableWindows() {
+        LocalDate origin = LocalDate.parse("2018-01-01");
+        TempSeries history = OrnsteinUhlenbeck.on(SeasonalMean.of(origin, 12, 0.0001, 9, -2, TempUnits.CELSIUS))
+            .alpha(0.2)
+            .sigma(Temp.celsius(2))
+            .random(new Random(0))
+            .predict(DateRange.of(origin, origin.plusYears(3)));
+        List<LocalDate> cutoffs = Backtest.cutoffs(origin.plusMonths(3), origin.plusYears(3), Period.ofMonths(1));
+        Backtest.Result result = Backtest.of(TempTrainer.ALATON).paths(10).run(history, cutoffs);
+        assertThat(result.size()).isBetween(24, cutoffs.size() - 1);
+        assertThat(result.get(0).cutoff()).isAfterOrEqualTo(origin.plusYears(1));
+    }
+}
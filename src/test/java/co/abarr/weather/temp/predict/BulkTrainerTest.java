@@ -0,0 +1,60 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempSeries;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class BulkTrainerTest {
+    private final LocalDate date = LocalDate.parse("2020-01-01");
+
+    private TempSeries series(double temp) {
+        return TempSeries.of(TempSeries.entry(date, Temp.kelvin(temp)));
+    }
+
+    @Test
+    void threads_IsZero_ShouldThrowException() {
+        BulkTrainer trainer = TempTrainer.MEAN.bulk();
+        assertThatThrownBy(() -> trainer.threads(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void train_NoSeries_ShouldBeEmpty() {
+        BulkTrainer.Result<String> result = TempTrainer.MEAN.bulk().train(Map.of());
+        assertThat(result).isEmpty();
+        assertThat(result.failures()).isEmpty();
+    }
+
+    @Test
+    void train_ManySeries_ShouldTrainEach() {
+        Map<String, TempSeries> series = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            series.put("station" + i, series(200 + i));
+        }
+        BulkTrainer.Result<String> result = TempTrainer.MEAN.bulk().threads(4).train(series);
+        assertThat(result).hasSize(20);
+        assertThat(result.timings()).hasSize(20);
+        for (int i = 0; i < 20; i++) {
+            assertThat(result.get("station" + i).predict(date, date.plusDays(1)).get(0).temp()).isEqualTo(Temp.kelvin(200 + i));
+        }
+    }
+
+    @Test
+    void train_OneSeriesFails_ShouldIsolateFailure() {
+        Map<String, TempSeries> series = new LinkedHashMap<>();
+        series.put("good", series(200));
+        series.put("bad", TempSeries.empty());
+        BulkTrainer.Result<String> result = TempTrainer.MEAN.bulk().train(series);
+        assertThat(result.keySet()).containsExactly("good");
+        assertThat(result.failures().get("bad")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(result.timings()).hasSize(2);
+    }
+}
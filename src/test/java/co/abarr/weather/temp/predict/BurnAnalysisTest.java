@@ -0,0 +1,63 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempIndexer;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.temp.TempVector;
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.Year;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class BurnAnalysisTest {
+    private final DateRange span = DateRange.of(LocalDate.parse("2015-01-01"), LocalDate.parse("2021-01-01"));
+
+    @Test
+    void apply_ToEmptySeries_ShouldBeEmpty() {
+        BurnAnalysis burn = BurnAnalysis.of(MonthDay.of(11, 1), MonthDay.of(4, 1), TempIndexer.HDD_65);
+        assertThat(burn.apply(TempSeries.empty())).isEmpty();
+    }
+
+    @Test
+    void apply_WrappingWindow_ShouldIncludeOnlyCoveredYears() {
+        TempSeries series = TempSeries.of(span, (int i) -> Temp.fahrenheit(60));
+        BurnAnalysis burn = BurnAnalysis.of(MonthDay.of(11, 1), MonthDay.of(4, 1), TempIndexer.HDD_65);
+        TempVector<Year> indices = burn.apply(series);
+        assertThat(indices).containsExactly(
+            TempVector.entry(Year.of(2015), Temp.fahrenheit(5 * 152)),
+            TempVector.entry(Year.of(2016), Temp.fahrenheit(5 * 151)),
+            TempVector.entry(Year.of(2017), Temp.fahrenheit(5 * 151)),
+            TempVector.entry(Year.of(2018), Temp.fahrenheit(5 * 151)),
+            TempVector.entry(Year.of(2019), Temp.fahrenheit(5 * 152))
+        );
+    }
+
+    @Test
+    void apply_WithinYearWindow_ShouldMatchSubSeries() {
+        TempSeries series = TempSeries.of(span, (int i) -> Temp.fahrenheit(50 + i % 20));
+        BurnAnalysis burn = BurnAnalysis.of(MonthDay.of(1, 1), MonthDay.of(2, 1), TempIndexer.HDD_65);
+        TempVector<Year> indices = burn.apply(series);
+        assertThat(indices).hasSize(6);
+        assertThat(indices.get(Year.of(2017))).contains(series.subSeries(DateRange.yearMonth(2017, 1)).apply(TempIndexer.HDD_65));
+    }
+
+    @Test
+    void detrended_WhenSeriesFollowsTrend_ShouldBeEqualAcrossYears() {
+        LocalDate origin = span.start();
+        TempSeries series = TempSeries.of(span, (int i) -> Temp.fahrenheit(40 + 0.001 * (i + 1)));
+        SeasonalMean trend = SeasonalMean.of(origin, 40, 0.001, 0, 0, TempUnits.FAHRENHEIT);
+        BurnAnalysis burn = BurnAnalysis.of(MonthDay.of(1, 1), MonthDay.of(2, 1), TempIndexer.HDD_65).detrended(trend);
+        TempVector<Year> indices = burn.apply(series);
+        double latest = indices.get(Year.of(2020)).get().doubleValue();
+        assertThat(indices.get(Year.of(2015)).get().doubleValue()).isCloseTo(latest, within(1e-6));
+    }
+}
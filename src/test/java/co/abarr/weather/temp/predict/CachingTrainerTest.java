@@ -0,0 +1,79 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempSeries;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class CachingTrainerTest {
+    private final LocalDate date1 = LocalDate.parse("2020-01-01");
+    private final LocalDate date2 = LocalDate.parse("2020-01-02");
+
+    private final TempSeries series1 = TempSeries.of(
+        TempSeries.entry(date1, Temp.kelvin(200)),
+        TempSeries.entry(date2, Temp.kelvin(210))
+    );
+    private final TempSeries series2 = TempSeries.of(
+        TempSeries.entry(date1, Temp.kelvin(200)),
+        TempSeries.entry(date2, Temp.kelvin(220))
+    );
+
+    @Test
+    void of_ZeroMaxSize_ShouldThrowException() {
+        assertThatThrownBy(() -> CachingTrainer.of(TempTrainer.MEAN, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void train_SameSeriesTwice_ShouldReturnCachedPredictor() {
+        CachingTrainer trainer = TempTrainer.MEAN.cached(10);
+        TempPredictor predictor = trainer.train(series1);
+        assertThat(trainer.train(series1)).isSameAs(predictor);
+        assertThat(trainer.hits()).isEqualTo(1L);
+        assertThat(trainer.misses()).isEqualTo(1L);
+    }
+
+    @Test
+    void train_EqualSeries_ShouldReturnCachedPredictor() {
+        CachingTrainer trainer = TempTrainer.MEAN.cached(10);
+        TempPredictor predictor = trainer.train(series1);
+        TempSeries copy = TempSeries.of(
+            TempSeries.entry(date1, Temp.kelvin(200)),
+            TempSeries.entry(date2, Temp.kelvin(210))
+        );
+        assertThat(trainer.train(copy)).isSameAs(predictor);
+    }
+
+    @Test
+    void train_DifferentSeries_ShouldTrainAgain() {
+        CachingTrainer trainer = TempTrainer.MEAN.cached(10);
+        TempPredictor predictor = trainer.train(series1);
+        assertThat(trainer.train(series2)).isNotSameAs(predictor);
+        assertThat(trainer.misses()).isEqualTo(2L);
+    }
+
+    @Test
+    void train_WhenFull_ShouldEvictLeastRecentlyUsed() {
+        TempSeries series3 = TempSeries.of(
+            TempSeries.entry(date1, Temp.kelvin(200)),
+            TempSeries.entry(date2, Temp.kelvin(230))
+        );
+        CachingTrainer trainer = TempTrainer.MEAN.cached(2);
+        TempPredictor predictor1 = trainer.train(series1);
+        TempPredictor predictor2 = trainer.train(series2);
+        trainer.train(series1);
+        trainer.train(series3);
+        assertThat(trainer.size()).isEqualTo(2);
+        assertThat(trainer.evictions()).isEqualTo(1L);
+        assertThat(trainer.train(series1)).isSameAs(predictor1);
+        assertThat(trainer.train(series2)).isNotSameAs(predictor2);
+        assertThat(trainer.hits()).isEqualTo(2L);
+        assertThat(trainer.misses()).isEqualTo(4L);
+    }
+}
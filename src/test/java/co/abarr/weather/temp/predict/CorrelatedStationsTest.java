@@ -0,0 +1,79 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempBag;
+import co.abarr.weather.temp.TempIndexer;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class CorrelatedStationsTest {
+    private final DateRange history = DateRange.of(
+        LocalDate.parse("2000-01-01"),
+        LocalDate.parse("2010-01-01")
+    );
+
+    private final Map<String, OrnsteinUhlenbeck> predictors = new LinkedHashMap<>();
+
+    {
+        predictors.put("KNYC", OrnsteinUhlenbeck.on(TempPredictor.of(Temp.fahrenheit(55))).alpha(0.2).sigma(Temp.fahrenheit(6)));
+        predictors.put("KORD", OrnsteinUhlenbeck.on(TempPredictor.of(Temp.fahrenheit(50))).alpha(0.3).sigma(Temp.fahrenheit(8)));
+    }
+
+    @Test
+    void of_WrongSize_ShouldThrowException() {
+        assertThatThrownBy(() -> CorrelatedStations.of(predictors, new double[][]{{1}})).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void of_NotPositiveDefinite_ShouldThrowException() {
+        double[][] correlation = {{1, 1.5}, {1.5, 1}};
+        assertThatThrownBy(() -> CorrelatedStations.of(predictors, correlation)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void of_NotOrnsteinUhlenbeck_ShouldThrowException() {
+        Map<String, TempPredictor> constant = Map.of("KNYC", TempPredictor.of(Temp.fahrenheit(55)));
+        assertThatThrownBy(() -> CorrelatedStations.of(constant, new double[][]{{1}})).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fit_SimulatedHistory_ShouldRecoverCorrelation() {
+        double[][] correlation = {{1, 0.8}, {0.8, 1}};
+        CorrelatedStations<String> stations = CorrelatedStations.of(predictors, correlation).random(new Random(0));
+        Map<String, TempSeries> observed = stations.predict(history);
+        CorrelatedStations<String> fitted = CorrelatedStations.fit(predictors, observed);
+        assertThat(fitted.stations()).containsExactly("KNYC", "KORD");
+        assertThat(fitted.correlation()[0][1]).isCloseTo(0.8, within(0.02));
+        assertThat(fitted.correlation()[1][0]).isCloseTo(0.8, within(0.02));
+    }
+
+    @Test
+    void fit_IndependentHistory_ShouldBeUncorrelated() {
+        Map<String, TempSeries> observed = new LinkedHashMap<>();
+        observed.put("KNYC", predictors.get("KNYC").random(new Random(1)).predict(history));
+        observed.put("KORD", predictors.get("KORD").random(new Random(2)).predict(history));
+        CorrelatedStations<String> fitted = CorrelatedStations.fit(predictors, observed);
+        assertThat(fitted.correlation()[0][1]).isCloseTo(0, within(0.05));
+    }
+
+    @Test
+    void simulate_NoNoise_ShouldSumStations() {
+        Map<String, OrnsteinUhlenbeck> flat = new LinkedHashMap<>();
+        flat.put("KNYC", OrnsteinUhlenbeck.on(TempPredictor.of(Temp.fahrenheit(55))));
+        flat.put("KORD", OrnsteinUhlenbeck.on(TempPredictor.of(Temp.fahrenheit(50))));
+        CorrelatedStations<String> stations = CorrelatedStations.of(flat, new double[][]{{1, 0.5}, {0.5, 1}});
+        TempBag basket = stations.simulate(DateRange.yearMonth(2021, 1), TempIndexer.HDD_65, 3);
+        assertThat(basket.mean()).contains(Temp.fahrenheit(31 * 10 + 31 * 15));
+    }
+}
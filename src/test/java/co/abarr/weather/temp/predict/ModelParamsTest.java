@@ -0,0 +1,90 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class ModelParamsTest {
+    private final LocalDate origin = LocalDate.parse("1990-01-01");
+    private final AlatonParams alaton = AlatonParams.of(
+        SeasonalMean.of(origin, 12.5, 0.0001, 9.1, -2.0001, TempUnits.CELSIUS),
+        0.2123,
+        new double[]{1.1, 1.2, 1.3, 1.4, 1.5, 1.6, 1.7, 1.8, 1.9, 2.0, 2.1, 2.2}
+    );
+    private final ConstantParams constant = ConstantParams.of(Temp.fahrenheit(61.25));
+
+    @Test
+    void of_WrongNumberOfSigmas_ShouldThrowException() {
+        SeasonalMean mean = alaton.mean();
+        assertThatThrownBy(() -> AlatonParams.of(mean, 0.2, new double[11])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void of_NegativeSigma_ShouldThrowException() {
+        SeasonalMean mean = alaton.mean();
+        double[] sigmas = new double[12];
+        sigmas[0] = -1;
+        assertThatThrownBy(() -> AlatonParams.of(mean, 0.2, sigmas)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void read_Written_ShouldBeEqual() throws IOException {
+        assertThat(roundTrip(alaton)).isEqualTo(alaton);
+        assertThat(roundTrip(constant)).isEqualTo(constant);
+    }
+
+    @Test
+    void parse_Formatted_ShouldBeEqual() {
+        assertThat(ModelParams.parse(alaton.format())).isEqualTo(alaton);
+        assertThat(ModelParams.parse(constant.format())).isEqualTo(constant);
+    }
+
+    @Test
+    void parse_UnknownModel_ShouldThrowException() {
+        assertThatThrownBy(() -> ModelParams.parse("garch 1 2 3")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parse_MissingFields_ShouldThrowException() {
+        assertThatThrownBy(() -> ModelParams.parse("constant CELSIUS")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void params_Constant_ShouldRecreatePredictor() {
+        TempPredictor predictor = TempPredictor.of(Temp.celsius(10));
+        assertThat(predictor.params()).contains(ConstantParams.of(Temp.celsius(10)));
+    }
+
+    @Test
+    void params_TrainedAlaton_ShouldRecreateIdenticalPredictor() throws IOException {
+        TempSeries observed = alaton.toPredictor().predict(DateRange.of(origin, origin.plusYears(5)));
+        OrnsteinUhlenbeck trained = (OrnsteinUhlenbeck) TempTrainer.ALATON.train(observed);
+        ModelParams params = roundTrip(trained.params().orElseThrow());
+        OrnsteinUhlenbeck loaded = (OrnsteinUhlenbeck) params.toPredictor();
+        DateRange range = DateRange.year(2000);
+        assertThat(loaded.random(new Random(0)).predict(range)).isEqualTo(trained.random(new Random(0)).predict(range));
+    }
+
+    @Test
+    void params_CustomSigma_ShouldBeEmpty() {
+        OrnsteinUhlenbeck predictor = OrnsteinUhlenbeck.on(alaton.mean()).sigma(date -> Temp.celsius(1));
+        assertThat(predictor.params()).isEmpty();
+    }
+
+    private static ModelParams roundTrip(ModelParams params) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        params.write(new DataOutputStream(bytes));
+        return ModelParams.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
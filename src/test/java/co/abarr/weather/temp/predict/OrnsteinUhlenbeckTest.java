@@ -1,14 +1,19 @@
 package co.abarr.weather.temp.predict;
 
 import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempBag;
+import co.abarr.weather.temp.TempDistribution;
+import co.abarr.weather.temp.TempIndexer;
 import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempSketch;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
 import java.util.Random;
 
-import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.*;
 
 /**
  * Created by adam on 04/12/2020.
@@ -56,4 +61,172 @@ class OrnsteinUhlenbeckTest {
             TempSeries.entry(LocalDate.parse("2020-01-09"), Temp.celsius(-0.21))
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void predictAsync_ShouldMatchPredict() {
+        DateRange range = DateRange.yearMonth(2020, 1);
+        TempSeries expected = predictor().predict(range);
+        assertThat(predictor().predictAsync(range).join()).isEqualTo(expected);
+    }
+
+    @Test
+    void sketch_SeededPredictor_ShouldBeRepeatable() {
+        DateRange range = DateRange.yearMonth(2020, 1);
+        TempSketch a = predictor().sigma(Temp.celsius(1)).sketch(range, TempIndexer.HDD_65, 5000);
+        TempSketch b = predictor().sigma(Temp.celsius(1)).sketch(range, TempIndexer.HDD_65, 5000);
+        assertThat(a.count()).isEqualTo(5000L);
+        assertThat(a.mean().orElseThrow().doubleValue()).isCloseTo(b.mean().orElseThrow().doubleValue(), within(1e-9));
+    }
+
+    @Test
+    void split_SeededPredictor_ShouldBeRepeatable() {
+        DateRange range = DateRange.yearMonth(2020, 1);
+        OrnsteinUhlenbeck predictor = predictor().sigma(Temp.celsius(1));
+        assertThat(predictor.split().predict(range)).isEqualTo(predictor().sigma(Temp.celsius(1)).split().predict(range));
+        assertThat(predictor.split().predict(range)).isNotEqualTo(predictor.split().predict(range));
+    }
+
+    @Test
+    void hdd_WithZeroSigma_ShouldBeDeterministic() {
+        OrnsteinUhlenbeck predictor = OrnsteinUhlenbeck.on(TempPredictor.of(Temp.celsius(10))).sigma(Temp.celsius(0));
+        TempDistribution hdd = predictor.hdd(DateRange.yearMonth(2020, 1), Temp.celsius(15));
+        assertThat(hdd.mean()).contains(Temp.celsius(155));
+        assertThat(hdd.stdev()).contains(Temp.celsius(0));
+    }
+
+    @Test
+    void hdd_WithRandomPath_ShouldBeCloseToSimulation() {
+        OrnsteinUhlenbeck predictor = predictor().alpha(0.25).sigma(Temp.celsius(2));
+        DateRange range = DateRange.yearMonth(2020, 1);
+        TempDistribution hdd = predictor.hdd(range, Temp.celsius(1));
+        TempBag simulated = predictor.simulate(range, TempIndexer.hdd(Temp.celsius(1)), 10000);
+        assertThat(hdd.mean().get().doubleValue()).isCloseTo(simulated.mean().get().doubleValue(), within(0.5));
+        assertThat(hdd.stdev().get().doubleValue()).isCloseTo(simulated.stdev().get().doubleValue(), within(1.0));
+    }
+
+    @Test
+    void sensitivities_NoPaths_ShouldThrowException() {
+        OrnsteinUhlenbeck predictor = predictor();
+        DateRange range = DateRange.yearMonth(2021, 1);
+        assertThatThrownBy(() -> predictor.sensitivities(range, TempIndexer.HDD_65, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sensitivities_AlwaysBelowReference_ShiftShouldBeMinusDays() {
+        OrnsteinUhlenbeck predictor = predictor().alpha(0.25).sigma(Temp.celsius(1));
+        DateRange range = DateRange.yearMonth(2021, 1);
+        OrnsteinUhlenbeck.Sensitivities sensitivities = predictor.sensitivities(range, TempIndexer.hdd(Temp.celsius(18)), 100);
+        assertThat(sensitivities.shift()).isCloseTo(-31, within(1e-9));
+    }
+
+    @Test
+    void sensitivities_AlwaysBelowReference_SigmaShouldMatchPathwiseNoise() {
+        OrnsteinUhlenbeck predictor = predictor().alpha(0.25).sigma(Temp.celsius(1));
+        DateRange range = DateRange.yearMonth(2021, 1);
+        OrnsteinUhlenbeck.Sensitivities sensitivities = predictor.sensitivities(range, TempIndexer.hdd(Temp.celsius(18)), 100);
+        double base = sensitivities.base().mean().orElseThrow().doubleValue();
+        assertThat(sensitivities.sigma()).isCloseTo(base - 31 * 18, within(1e-6));
+    }
+
+    @Test
+    void sensitivities_NoNoise_AlphaShouldBeZero() {
+        OrnsteinUhlenbeck predictor = predictor().alpha(0.25);
+        DateRange range = DateRange.yearMonth(2021, 1);
+        OrnsteinUhlenbeck.Sensitivities sensitivities = predictor.sensitivities(range, TempIndexer.hdd(Temp.celsius(18)), 10);
+        assertThat(sensitivities.alpha()).isCloseTo(0, within(1e-9));
+    }
+
+    @Test
+    void sensitivities_SigmaOfOption_ShouldBePositive() {
+        OrnsteinUhlenbeck predictor = predictor().alpha(0.25).sigma(Temp.celsius(2));
+        DateRange range = DateRange.yearMonth(2021, 1);
+        Temp strike = Temp.celsius(31 * 18);
+        OrnsteinUhlenbeck.Sensitivities sensitivities = predictor.sensitivities(range, TempIndexer.hdd(Temp.celsius(18)), 1000);
+        assertThat(sensitivities.sigma(d -> d.expectedExcessOver(strike).doubleValue())).isGreaterThan(0.0);
+    }
+
+    @Test
+    void blockSize_IsNegative_ShouldThrowException() {
+        OrnsteinUhlenbeck predictor = predictor();
+        assertThatThrownBy(() -> predictor.blockSize(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void predict_InBlocksWithNoNoise_ShouldFollowUnderlying() {
+        OrnsteinUhlenbeck predictor = OrnsteinUhlenbeck.on(
+            TempPredictor.of(Temp.celsius(10))
+        ).alpha(0.25).sigma(Temp.celsius(0)).blockSize(7);
+        TempSeries series = predictor.predict(DateRange.yearMonth(2021, 1));
+        assertThat(series).isEqualTo(TempSeries.of(DateRange.yearMonth(2021, 1), (int i) -> Temp.celsius(10)));
+    }
+
+    @Test
+    void predict_InBlocksWithSameSeed_ShouldBeRepeatable() {
+        DateRange range = DateRange.year(2021);
+        OrnsteinUhlenbeck predictor = predictor().alpha(0.1).sigma(Temp.celsius(1)).blockSize(30);
+        TempSeries series1 = predictor.random(new Random(1)).predict(range);
+        TempSeries series2 = predictor.random(new Random(1)).predict(range);
+        assertThat(series1).isEqualTo(series2);
+    }
+
+    @Test
+    void predict_InBlocks_ShouldHaveSameDistributionAsSequential() {
+        DateRange range = DateRange.of(LocalDate.parse("2021-01-01"), LocalDate.parse("2021-04-11"));
+        OrnsteinUhlenbeck sequential = predictor().alpha(0.1).sigma(Temp.celsius(1));
+        OrnsteinUhlenbeck parallel = sequential.blockSize(7);
+        double decay = 0.9;
+        int paths = 20000;
+        //Days 6 and 7 are the last of one block and the first of the next, and
+        //day 9 is in the middle of a block
+        for (OrnsteinUhlenbeck predictor : new OrnsteinUhlenbeck[]{sequential, parallel}) {
+            double[] sum = new double[3];
+            double[] sumSq = new double[3];
+            double sumCross = 0;
+            for (int p = 0; p < paths; p++) {
+                TempSeries series = predictor.predict(range);
+                double[] z = {
+                    series.get(6).temp().doubleValue(),
+                    series.get(7).temp().doubleValue(),
+                    series.get(9).temp().doubleValue()
+                };
+                for (int j = 0; j < 3; j++) {
+                    sum[j] += z[j];
+                    sumSq[j] += z[j] * z[j];
+                }
+                sumCross += z[0] * z[1];
+            }
+            int[] steps = {7, 8, 10};
+            for (int j = 0; j < 3; j++) {
+                double variance = (1 - Math.pow(decay, 2 * steps[j])) / (1 - decay * decay);
+                assertThat(sum[j] / paths).isCloseTo(0, within(0.05));
+                assertThat(sumSq[j] / paths).isCloseTo(variance, within(0.05 * variance));
+            }
+            double covariance = decay * (1 - Math.pow(decay, 14)) / (1 - decay * decay);
+            assertThat(sumCross / paths).isCloseTo(covariance, within(0.05 * covariance));
+        }
+    }
+
+    @Test
+    void predict_InBlocks_HddShouldMatchAnalytic() {
+        DateRange range = DateRange.year(2021);
+        OrnsteinUhlenbeck predictor = OrnsteinUhlenbeck.on(
+            TempPredictor.of(Temp.celsius(15))
+        ).alpha(0.2).sigma(Temp.celsius(2)).random(new Random(0)).blockSize(30);
+        Temp reference = Temp.celsius(18);
+        TempDistribution analytic = predictor.hdd(range, reference);
+        TempBag simulated = predictor.simulate(range, TempIndexer.hdd(reference), 2000);
+        double mean = analytic.mean().orElseThrow().doubleValue();
+        double stdev = analytic.stdev().orElseThrow().doubleValue();
+        assertThat(simulated.mean().orElseThrow().doubleValue()).isCloseTo(mean, within(4 * stdev / Math.sqrt(2000)));
+        assertThat(simulated.stdev().orElseThrow().doubleValue()).isCloseTo(stdev, within(0.1 * stdev));
+    }
+
+    @Test
+    void predict_WithMonthlySchedule_ShouldMatchSigmaFunction() {
+        double[] sigmas = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12};
+        DateRange range = DateRange.year(2021);
+        TempSeries scheduled = predictor().alpha(0.25).sigma(SigmaSchedule.monthly(sigmas, TempUnits.CELSIUS)).predict(range);
+        TempSeries function = predictor().alpha(0.25).sigma(date -> Temp.celsius(sigmas[date.getMonthValue() - 1])).predict(range);
+        assertThat(scheduled).isEqualTo(function);
+    }
+}
@@ -0,0 +1,96 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.MultiIndexer;
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempBag;
+import co.abarr.weather.temp.TempIndexer;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class PathStoreTest {
+    private final DateRange range = DateRange.yearMonth(2021, 1);
+    private final OrnsteinUhlenbeck predictor = OrnsteinUhlenbeck.on(
+        TempPredictor.of(Temp.fahrenheit(60))
+    ).alpha(0.25).sigma(Temp.fahrenheit(5));
+    private final Path file = tempFile();
+
+    @Test
+    void write_NoPaths_ShouldThrowException() {
+        assertThatThrownBy(() -> PathStore.write(file, predictor, range, 0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void open_ShouldReadHeader() throws IOException {
+        PathStore.write(file, predictor, range, 10, 42).close();
+        try (PathStore store = PathStore.open(file)) {
+            assertThat(store.range()).isEqualTo(range);
+            assertThat(store.units()).isEqualTo(TempUnits.FAHRENHEIT);
+            assertThat(store.seed()).isEqualTo(42L);
+            assertThat(store.paths()).isEqualTo(10);
+        }
+    }
+
+    @Test
+    void path_ShouldMatchSeededSimulation() throws IOException {
+        PathStore.write(file, predictor, range, 3, 42).close();
+        OrnsteinUhlenbeck seeded = predictor.random(new Random(42));
+        try (PathStore store = PathStore.open(file)) {
+            for (int p = 0; p < store.paths(); p++) {
+                assertThat(store.path(p)).isEqualTo(seeded.predict(range));
+            }
+        }
+    }
+
+    @Test
+    void path_OutOfRange_ShouldThrowException() throws IOException {
+        try (PathStore store = PathStore.write(file, predictor, range, 3, 42)) {
+            assertThatThrownBy(() -> store.path(3)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+    }
+
+    @Test
+    void apply_Indexer_ShouldMatchSeededSimulation() throws IOException {
+        PathStore.write(file, predictor, range, 100, 7).close();
+        TempBag expected = predictor.random(new Random(7)).simulate(range, TempIndexer.HDD_65, 100);
+        try (PathStore store = PathStore.open(file)) {
+            assertThat(store.apply(TempIndexer.HDD_65)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void apply_MultiIndexer_ShouldMatchEachIndexer() throws IOException {
+        try (PathStore store = PathStore.write(file, predictor, range, 50, 7)) {
+            List<TempBag> bags = store.apply(MultiIndexer.of(TempIndexer.HDD_65, TempIndexer.CDD_65));
+            assertThat(bags).containsExactly(store.apply(TempIndexer.HDD_65), store.apply(TempIndexer.CDD_65));
+        }
+    }
+
+    @Test
+    void open_NotAPathStore_ShouldThrowException() throws IOException {
+        Files.write(file, new byte[100]);
+        assertThatThrownBy(() -> PathStore.open(file)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Path tempFile() {
+        try {
+            Path file = Files.createTempFile("paths", ".bin");
+            file.toFile().deleteOnExit();
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempBag;
+import co.abarr.weather.temp.TempIndexer;
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class PortfolioTest {
+    private final DateRange jan = DateRange.yearMonth(2021, 1);
+    private final DateRange feb = DateRange.yearMonth(2021, 2);
+    private final DateRange season = DateRange.of(jan.start(), feb.end());
+
+    private OrnsteinUhlenbeck predictor() {
+        return OrnsteinUhlenbeck.on(
+            TempPredictor.of(Temp.fahrenheit(60))
+        ).alpha(0.25).sigma(Temp.fahrenheit(5)).random(new Random(0));
+    }
+
+    @Test
+    void with_DuplicateContract_ShouldThrowException() {
+        Portfolio<String, String> portfolio = Portfolio.<String, String>empty().with("jan", "KNYC", jan, TempIndexer.HDD_65);
+        assertThatThrownBy(() -> portfolio.with("jan", "KNYC", feb, TempIndexer.HDD_65)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rangeFor_OverlappingContracts_ShouldBeUnion() {
+        Portfolio<String, String> portfolio = Portfolio.<String, String>empty()
+            .with("jan", "KNYC", jan, TempIndexer.HDD_65)
+            .with("feb", "KNYC", feb, TempIndexer.HDD_65)
+            .with("other", "KORD", DateRange.year(2020), TempIndexer.HDD_65);
+        assertThat(portfolio.rangeFor("KNYC")).isEqualTo(season);
+    }
+
+    @Test
+    void simulate_MissingPredictor_ShouldThrowException() {
+        Portfolio<String, String> portfolio = Portfolio.<String, String>empty().with("jan", "KNYC", jan, TempIndexer.HDD_65);
+        assertThatThrownBy(() -> portfolio.simulate(Map.of(), 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void simulate_ConstantPredictor_ShouldBeExact() {
+        Portfolio<String, String> portfolio = Portfolio.<String, String>empty()
+            .with("jan", "KNYC", jan, TempIndexer.HDD_65)
+            .with("feb", "KNYC", feb, TempIndexer.CDD_65);
+        Map<String, TempBag> bags = portfolio.simulate(Map.of("KNYC", TempPredictor.of(Temp.fahrenheit(60))), 3);
+        assertThat(bags.get("jan").sum()).isEqualTo(Temp.fahrenheit(465));
+        assertThat(bags.get("jan").mean()).contains(Temp.fahrenheit(155));
+        assertThat(bags.get("feb").mean()).contains(Temp.fahrenheit(0));
+    }
+
+    @Test
+    void simulate_OverlappingContracts_ShouldShareSamePaths() {
+        Portfolio<String, String> portfolio = Portfolio.<String, String>empty()
+            .with("jan", "KNYC", jan, TempIndexer.HDD_65)
+            .with("feb", "KNYC", feb, TempIndexer.HDD_65)
+            .with("season", "KNYC", season, TempIndexer.HDD_65);
+        Map<String, TempBag> bags = portfolio.simulate(Map.of("KNYC", predictor()), 100);
+        double jan = bags.get("jan").mean().orElseThrow().doubleValue();
+        double feb = bags.get("feb").mean().orElseThrow().doubleValue();
+        double season = bags.get("season").mean().orElseThrow().doubleValue();
+        assertThat(season).isCloseTo(jan + feb, within(1e-9));
+    }
+}
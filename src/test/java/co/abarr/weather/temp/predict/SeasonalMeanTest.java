@@ -0,0 +1,42 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.TempSeries;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class SeasonalMeanTest {
+    private final LocalDate origin = LocalDate.parse("2000-01-01");
+    private final SeasonalMean mean = SeasonalMean.of(origin, 10, 0.001, 8, -2, TempUnits.CELSIUS);
+
+    @Test
+    void meanAt_AnyDay_ShouldMatchFormula() {
+        for (LocalDate date : DateRange.of(LocalDate.parse("1999-06-01"), LocalDate.parse("2001-06-01"))) {
+            int t = SeasonalMean.t(origin, date);
+            double expected = 10 + 0.001 * t + 8 * Math.sin(SeasonalMean.W * t - 2);
+            assertThat(mean.meanAt(date.toEpochDay())).isCloseTo(expected, within(1e-9));
+        }
+    }
+
+    @Test
+    void predict_AnyRange_ShouldMatchMeanAt() {
+        DateRange range = DateRange.year(2021);
+        TempSeries series = mean.predict(range);
+        for (int i = 0; i < range.size(); i++) {
+            assertThat(series.get(i).temp().doubleValue()).isEqualTo(mean.meanAt(range.get(i).toEpochDay()));
+        }
+    }
+
+    @Test
+    void meansOver_SameRange_ShouldBeCached() {
+        DateRange range = DateRange.year(2021);
+        assertThat(mean.meansOver(range)).isSameAs(mean.meansOver(DateRange.year(2021)));
+    }
+}
@@ -0,0 +1,88 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempIndexer;
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class ShardedSimulationTest {
+    private final DateRange range = DateRange.yearMonth(2021, 1);
+    private final ShardedSimulation simulation = OrnsteinUhlenbeck.on(
+        TempPredictor.of(Temp.fahrenheit(60))
+    ).alpha(0.25).sigma(Temp.fahrenheit(5)).sharded(range, TempIndexer.HDD_65, 1000).seed(42).payoff(
+        index -> Math.max(0, index.doubleValue() - 150)
+    );
+
+    @Test
+    void of_NoPaths_ShouldThrowException() {
+        assertThatThrownBy(() -> OrnsteinUhlenbeck.on(TempPredictor.of(Temp.fahrenheit(60))).sharded(range, TempIndexer.HDD_65, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void run_InvalidShard_ShouldThrowException() {
+        assertThatThrownBy(() -> simulation.run(3, 3)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void run_SameSeed_ShouldBeRepeatable() {
+        ShardedSimulation.Result a = simulation.run();
+        ShardedSimulation.Result b = simulation.run();
+        assertThat(a.indices()).isEqualTo(b.indices());
+        assertThat(a.estimate()).isEqualTo(b.estimate());
+    }
+
+    @Test
+    void run_DifferentSeed_ShouldDiffer() {
+        assertThat(simulation.seed(43).run().estimate()).isNotEqualTo(simulation.run().estimate());
+    }
+
+    @Test
+    void run_ShardsSplitPaths_ShouldCoverAllPaths() {
+        int total = 0;
+        for (int shard = 0; shard < 7; shard++) {
+            total += simulation.run(shard, 7).size();
+        }
+        assertThat(total).isEqualTo(1000);
+    }
+
+    @Test
+    void merge_ShardsFromFiles_ShouldMatchSingleProcessExactly() throws IOException {
+        List<ShardedSimulation.Partial> partials = new ArrayList<>();
+        for (int shard = 3; shard >= 0; shard--) {
+            Path file = Files.createTempFile("shard", ".bin");
+            file.toFile().deleteOnExit();
+            simulation.run(shard, 4).write(file);
+            partials.add(ShardedSimulation.Partial.read(file));
+        }
+        ShardedSimulation.Result merged = ShardedSimulation.merge(partials);
+        ShardedSimulation.Result single = simulation.run();
+        assertThat(merged.indices()).isEqualTo(single.indices());
+        assertThat(merged.estimate()).isEqualTo(single.estimate());
+        assertThat(merged.standardError()).isEqualTo(single.standardError());
+        assertThat(merged.paths()).isEqualTo(1000);
+    }
+
+    @Test
+    void merge_MissingShard_ShouldThrowException() {
+        List<ShardedSimulation.Partial> partials = List.of(simulation.run(0, 3), simulation.run(2, 3));
+        assertThatThrownBy(() -> ShardedSimulation.merge(partials)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void merge_DifferentSeeds_ShouldThrowException() {
+        List<ShardedSimulation.Partial> partials = List.of(simulation.run(0, 2), simulation.seed(1).run(1, 2));
+        assertThatThrownBy(() -> ShardedSimulation.merge(partials)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
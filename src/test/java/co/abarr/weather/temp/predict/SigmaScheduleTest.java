@@ -0,0 +1,88 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempUnits;
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class SigmaScheduleTest {
+    private final DateRange range = DateRange.of(LocalDate.parse("2021-01-30"), LocalDate.parse("2021-02-02"));
+
+    @Test
+    void monthly_WrongNumberOfSigmas_ShouldThrowException() {
+        assertThatThrownBy(() -> SigmaSchedule.monthly(new double[11], TempUnits.CELSIUS)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void monthly_NegativeSigma_ShouldThrowException() {
+        double[] sigmas = new double[12];
+        sigmas[6] = -1;
+        assertThatThrownBy(() -> SigmaSchedule.monthly(sigmas, TempUnits.CELSIUS)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void over_RangeIncludesMonthWithoutSigma_ShouldThrowException() {
+        double[] sigmas = new double[12];
+        sigmas[6] = Double.NaN;
+        SigmaSchedule schedule = SigmaSchedule.monthly(sigmas, TempUnits.CELSIUS);
+        assertThat(schedule.over(DateRange.yearMonth(2021, 6), TempUnits.CELSIUS)).containsOnly(0.0);
+        assertThatThrownBy(() -> schedule.over(DateRange.yearMonth(2021, 7), TempUnits.CELSIUS))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("JULY");
+    }
+
+    @Test
+    void daily_WrongNumberOfSigmas_ShouldThrowException() {
+        assertThatThrownBy(() -> SigmaSchedule.daily(new double[365], TempUnits.CELSIUS)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void over_Monthly_ShouldLookUpMonth() {
+        double[] sigmas = new double[12];
+        sigmas[0] = 1;
+        sigmas[1] = 2;
+        SigmaSchedule schedule = SigmaSchedule.monthly(sigmas, TempUnits.CELSIUS);
+        assertThat(schedule.over(range, TempUnits.CELSIUS)).containsExactly(1.0, 1.0, 2.0);
+    }
+
+    @Test
+    void over_Daily_ShouldLookUpDayOfYear() {
+        double[] sigmas = new double[366];
+        for (int i = 0; i < sigmas.length; i++) {
+            sigmas[i] = i + 1;
+        }
+        SigmaSchedule schedule = SigmaSchedule.daily(sigmas, TempUnits.CELSIUS);
+        assertThat(schedule.over(range, TempUnits.CELSIUS)).containsExactly(30.0, 31.0, 32.0);
+    }
+
+    @Test
+    void over_DailyInNonLeapYear_ShouldLookUpCalendarDay() {
+        double[] sigmas = new double[366];
+        for (int i = 0; i < sigmas.length; i++) {
+            sigmas[i] = i + 1;
+        }
+        SigmaSchedule schedule = SigmaSchedule.daily(sigmas, TempUnits.CELSIUS);
+        DateRange range = DateRange.of(LocalDate.parse("2021-02-28"), LocalDate.parse("2021-03-02"));
+        assertThat(schedule.over(range, TempUnits.CELSIUS)).containsExactly(59.0, 61.0);
+    }
+
+    @Test
+    void over_DifferentUnits_ShouldConvertAsDifference() {
+        SigmaSchedule schedule = SigmaSchedule.constant(Temp.celsius(10));
+        double[] sigmas = schedule.over(range, TempUnits.FAHRENHEIT);
+        assertThat(sigmas[0]).isCloseTo(18, within(1e-9));
+    }
+
+    @Test
+    void over_Function_ShouldMatchFunction() {
+        SigmaSchedule schedule = SigmaSchedule.of(date -> Temp.celsius(date.getDayOfMonth()));
+        assertThat(schedule.over(range, TempUnits.CELSIUS)).containsExactly(30.0, 31.0, 1.0);
+    }
+}
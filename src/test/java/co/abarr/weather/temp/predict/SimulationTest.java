@@ -0,0 +1,159 @@
+package co.abarr.weather.temp.predict;
+
+import co.abarr.weather.temp.Temp;
+import co.abarr.weather.temp.TempIndexer;
+import co.abarr.weather.time.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Created by adam on 19/10/2026.
+ */
+class SimulationTest {
+    private final DateRange range = DateRange.yearMonth(2021, 1);
+
+    private OrnsteinUhlenbeck predictor() {
+        return OrnsteinUhlenbeck.on(
+            TempPredictor.of(Temp.fahrenheit(60))
+        ).alpha(0.25).sigma(Temp.fahrenheit(5)).random(new Random(0));
+    }
+
+    @Test
+    void targetError_IsNegative_ShouldThrowException() {
+        Simulation simulation = predictor().simulation(range, TempIndexer.HDD_65);
+        assertThatThrownBy(() -> simulation.targetError(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void batchSize_IsLessThanTwo_ShouldThrowException() {
+        Simulation simulation = predictor().simulation(range, TempIndexer.HDD_65);
+        assertThatThrownBy(() -> simulation.batchSize(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void run_ConstantPredictor_ShouldConvergeAfterOneBatch() {
+        Simulation.Result result = TempPredictor.of(Temp.fahrenheit(60))
+            .simulation(range, TempIndexer.HDD_65)
+            .batchSize(10)
+            .run();
+        assertThat(result.converged()).isTrue();
+        assertThat(result.paths()).isEqualTo(10);
+        assertThat(result.estimate()).isCloseTo(155, within(1e-9));
+        assertThat(result.standardError()).isCloseTo(0, within(1e-9));
+    }
+
+    @Test
+    void run_WithTargetError_ShouldMeetTarget() {
+        Simulation.Result result = predictor()
+            .simulation(range, TempIndexer.HDD_65)
+            .targetError(1)
+            .batchSize(100)
+            .run();
+        assertThat(result.converged()).isTrue();
+        assertThat(result.standardError()).isLessThanOrEqualTo(1.0);
+        assertThat(result.paths()).isLessThan(1_000_000);
+        assertThat(result.indices().mean().orElseThrow().doubleValue()).isCloseTo(result.estimate(), within(1e-6));
+    }
+
+    @Test
+    void run_WithMaxPaths_ShouldStopWithoutConverging() {
+        Simulation.Result result = predictor()
+            .simulation(range, TempIndexer.HDD_65)
+            .targetError(0)
+            .batchSize(100)
+            .maxPaths(250)
+            .run();
+        assertThat(result.converged()).isFalse();
+        assertThat(result.paths()).isEqualTo(250);
+    }
+
+    @Test
+    void run_WithZeroTimeLimit_ShouldStopAfterOneBatch() {
+        Simulation.Result result = predictor()
+            .simulation(range, TempIndexer.HDD_65)
+            .timeLimit(Duration.ZERO)
+            .batchSize(100)
+            .run();
+        assertThat(result.paths()).isEqualTo(100);
+    }
+
+    @Test
+    void run_WithPayoff_ShouldEstimatePayoff() {
+        Simulation.Result result = TempPredictor.of(Temp.fahrenheit(60))
+            .simulation(range, TempIndexer.HDD_65)
+            .payoff(index -> Math.max(index.doubleValue() - 100, 0))
+            .batchSize(10)
+            .run();
+        assertThat(result.estimate()).isCloseTo(55, within(1e-9));
+    }
+
+    @Test
+    void run_SeededPredictor_ShouldBeRepeatable() {
+        Simulation.Result a = predictor().simulation(range, TempIndexer.HDD_65).maxPaths(2000).run();
+        Simulation.Result b = predictor().simulation(range, TempIndexer.HDD_65).maxPaths(2000).run();
+        assertThat(a.indices()).isEqualTo(b.indices());
+        assertThat(a.estimate()).isEqualTo(b.estimate());
+    }
+
+    @Test
+    void runAsync_ShouldCompleteWithResult() {
+        Simulation.Result result = TempPredictor.of(Temp.fahrenheit(60))
+            .simulation(range, TempIndexer.HDD_65)
+            .batchSize(10)
+            .runAsync()
+            .join();
+        assertThat(result.estimate()).isCloseTo(155, within(1e-9));
+    }
+
+    @Test
+    void runAsync_Cancelled_ShouldStopAfterCurrentBatch() {
+        List<Runnable> tasks = new ArrayList<>();
+        AtomicInteger payoffs = new AtomicInteger();
+        CompletableFuture<Simulation.Result> future = predictor()
+            .simulation(range, TempIndexer.HDD_65)
+            .payoff(index -> payoffs.incrementAndGet())
+            .batchSize(100)
+            .runAsync(tasks::add);
+        future.cancel(true);
+        tasks.forEach(Runnable::run);
+        assertThat(future.isCancelled()).isTrue();
+        assertThat(payoffs.get()).isEqualTo(100);
+    }
+
+    @Test
+    void runAsync_WithTimeout_ShouldCompleteExceptionallyAndStop() {
+        List<Runnable> tasks = new ArrayList<>();
+        AtomicInteger payoffs = new AtomicInteger();
+        CompletableFuture<Simulation.Result> future = predictor()
+            .simulation(range, TempIndexer.HDD_65)
+            .payoff(index -> payoffs.incrementAndGet())
+            .batchSize(100)
+            .runAsync(tasks::add)
+            .orTimeout(1, TimeUnit.MILLISECONDS);
+        assertThatThrownBy(future::join).hasCauseInstanceOf(TimeoutException.class);
+        tasks.forEach(Runnable::run);
+        assertThat(payoffs.get()).isEqualTo(100);
+    }
+
+    @Test
+    void runAsync_PayoffThrowsError_ShouldCompleteExceptionally() {
+        CompletableFuture<Simulation.Result> future = predictor()
+            .simulation(range, TempIndexer.HDD_65)
+            .payoff(index -> {
+                throw new AssertionError("payoff failed");
+            })
+            .batchSize(10)
+            .runAsync(Runnable::run);
+        assertThatThrownBy(future::join).hasCauseInstanceOf(AssertionError.class);
+    }
+}